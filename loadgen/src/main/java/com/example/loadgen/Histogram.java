@@ -0,0 +1,125 @@
+package com.example.loadgen;
+
+// HDR 방식의 지연 시간 히스토그램 (마이크로초). 연결 스레드마다 하나씩 두고 끝나면 합친다.
+// 2의 거듭제곱 구간마다 128칸이므로 상대 오차가 1% 이내이다.
+public class Histogram {
+    private static final int SUB_BITS = 7;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    // 2^36 마이크로초(약 19시간)보다 긴 값은 마지막 칸에 넣는다.
+    private static final int MAX_EXPONENT = 35;
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BITS + 2) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private long sum;
+    private long min = Long.MAX_VALUE;
+    private long max;
+
+    public void record(long micros) {
+        record(Math.max(0, micros), 1);
+    }
+
+    private void record(long micros, long times) {
+        counts[index(micros)] += times;
+        count += times;
+        sum += micros * times;
+        min = Math.min(min, micros);
+        max = Math.max(max, micros);
+    }
+
+    public void add(Histogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    // 닫힌 루프 부하에서는 느린 응답 동안 보내지 못한 요청이 기록에서 빠진다 (coordinated omission).
+    // 기대 간격보다 긴 값마다, 그 사이에 보냈어야 할 요청들이 기다렸을 시간을 채워 넣은 사본을 돌려준다.
+    public Histogram correctedForCoordinatedOmission(long expectedIntervalMicros) {
+        Histogram corrected = new Histogram();
+        corrected.add(this);
+        if (expectedIntervalMicros <= 0) {
+            return corrected;
+        }
+        for (int i = 0; i < BUCKETS; i++) {
+            long times = counts[i];
+            if (times == 0) {
+                continue;
+            }
+            long value = Math.min(max, representative(i));
+            for (long missing = value - expectedIntervalMicros; missing >= expectedIntervalMicros;
+                 missing -= expectedIntervalMicros) {
+                corrected.record(missing, times);
+            }
+        }
+        return corrected;
+    }
+
+    static int index(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        int sub = (int) (micros >>> (exponent - SUB_BITS)) - SUB_BUCKETS;
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    // index 칸의 하한 (포함)
+    static long lowerBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BITS - 1;
+        int sub = index % SUB_BUCKETS;
+        return (long) (SUB_BUCKETS + sub) << (exponent - SUB_BITS);
+    }
+
+    // index 칸의 상한 (포함하지 않음)
+    static long upperBound(int index) {
+        return index + 1 < BUCKETS ? lowerBound(index + 1) : Long.MAX_VALUE;
+    }
+
+    private static long representative(int index) {
+        long lower = lowerBound(index);
+        return lower + (upperBound(index) - 1 - lower) / 2;
+    }
+
+    // 분위수 (0~100). 해당 칸의 상한을 돌려주되 최댓값을 넘지 않는다.
+    public long percentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.max(min, Math.min(max, upperBound(i) - 1));
+            }
+        }
+        return max;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getMin() {
+        return count == 0 ? 0 : min;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+}
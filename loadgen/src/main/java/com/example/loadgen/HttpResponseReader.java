@@ -0,0 +1,120 @@
+package com.example.loadgen;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+// 응답 하나를 끝까지 읽는다. 본문은 Content-Length, chunked, 연결 종료 중 하나로 끝을 안다.
+// 본문 내용은 쓰지 않으므로 바이트 수만 센다.
+public final class HttpResponseReader {
+    private final InputStream in;
+    private final StringBuilder line = new StringBuilder(128);
+    private final byte[] skipBuffer = new byte[16 * 1024];
+
+    public HttpResponseReader(InputStream in) {
+        this.in = in;
+    }
+
+    public Response read() throws IOException {
+        String statusLine = readLine();
+        if (statusLine == null) {
+            throw new EOFException("Connection closed before the response");
+        }
+        int status = parseStatus(statusLine);
+        long contentLength = -1;
+        boolean chunked = false;
+        boolean close = statusLine.startsWith("HTTP/1.0");
+        for (String header = readLine(); header != null && !header.isEmpty(); header = readLine()) {
+            int colon = header.indexOf(':');
+            if (colon < 0) {
+                continue;
+            }
+            String name = header.substring(0, colon).trim();
+            String value = header.substring(colon + 1).trim();
+            if (name.equalsIgnoreCase("Content-Length")) {
+                contentLength = Long.parseLong(value);
+            } else if (name.equalsIgnoreCase("Transfer-Encoding")) {
+                chunked = value.equalsIgnoreCase("chunked");
+            } else if (name.equalsIgnoreCase("Connection")) {
+                close = value.equalsIgnoreCase("close");
+            }
+        }
+        long bytes;
+        if (chunked) {
+            bytes = skipChunked();
+        } else if (contentLength >= 0) {
+            skipFully(contentLength);
+            bytes = contentLength;
+        } else {
+            bytes = skipToEnd();
+            close = true;
+        }
+        return new Response(status, bytes, close);
+    }
+
+    private static int parseStatus(String statusLine) throws IOException {
+        int space = statusLine.indexOf(' ');
+        if (!statusLine.startsWith("HTTP/") || space < 0 || statusLine.length() < space + 4) {
+            throw new IOException("Malformed status line: " + statusLine);
+        }
+        return Integer.parseInt(statusLine.substring(space + 1, space + 4));
+    }
+
+    private long skipChunked() throws IOException {
+        long total = 0;
+        while (true) {
+            String sizeLine = readLine();
+            if (sizeLine == null) {
+                throw new EOFException("Connection closed in the middle of a chunked body");
+            }
+            int extension = sizeLine.indexOf(';');
+            long size = Long.parseLong((extension >= 0 ? sizeLine.substring(0, extension) : sizeLine).trim(), 16);
+            if (size == 0) {
+                // 트레일러는 빈 줄까지 버린다.
+                for (String trailer = readLine(); trailer != null && !trailer.isEmpty(); trailer = readLine()) {
+                }
+                return total;
+            }
+            skipFully(size);
+            readLine();
+            total += size;
+        }
+    }
+
+    private void skipFully(long length) throws IOException {
+        long remaining = length;
+        while (remaining > 0) {
+            int read = in.read(skipBuffer, 0, (int) Math.min(skipBuffer.length, remaining));
+            if (read < 0) {
+                throw new EOFException("Connection closed in the middle of a body");
+            }
+            remaining -= read;
+        }
+    }
+
+    private long skipToEnd() throws IOException {
+        long total = 0;
+        for (int read = in.read(skipBuffer); read >= 0; read = in.read(skipBuffer)) {
+            total += read;
+        }
+        return total;
+    }
+
+    // CRLF 또는 LF로 끝나는 한 줄. 아무것도 읽기 전에 스트림이 끝나면 null.
+    private String readLine() throws IOException {
+        line.setLength(0);
+        int b = in.read();
+        if (b < 0) {
+            return null;
+        }
+        while (b >= 0 && b != '\n') {
+            if (b != '\r') {
+                line.append((char) b);
+            }
+            b = in.read();
+        }
+        return line.toString();
+    }
+
+    public record Response(int status, long bytes, boolean close) {}
+}
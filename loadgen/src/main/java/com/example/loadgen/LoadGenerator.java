@@ -0,0 +1,151 @@
+package com.example.loadgen;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// 실행 중인 서버에 루프백으로 부하를 걸고 처리량과 지연 시간 분위수를 JSON 보고서로 남긴다.
+// 보고서의 키 순서는 항상 같으므로 빌드 사이에 그대로 diff 할 수 있다.
+public class LoadGenerator {
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+
+    public static void main(String[] args) throws Exception {
+        LoadOptions options;
+        try {
+            options = LoadOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.print(LoadOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+        RequestMix mix = options.mix() != null
+                ? RequestMix.fromFile(options.mix())
+                : RequestMix.fromServerConfig(options.config());
+        System.out.printf("Target %s:%d, %d connections, keep-alive %s, %s%n", options.address(), options.port(),
+                options.connections(), options.keepAlive(),
+                options.rate() > 0 ? options.rate() + " req/s" : "closed loop");
+        System.out.println("Request mix: " + mix.getTargets());
+
+        List<LoadWorker> workers = run(options, mix);
+        ObjectNode report = report(options, mix, workers);
+        ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        mapper.writeValue(options.report().toFile(), report);
+        System.out.println(summary(report));
+        System.out.println("Report written to " + options.report().toAbsolutePath());
+        if (report.path("requests").asLong() == 0) {
+            System.exit(1);
+        }
+    }
+
+    static List<LoadWorker> run(LoadOptions options, RequestMix mix) throws InterruptedException {
+        long recordFrom = System.nanoTime() + options.warmup().toNanos();
+        long stopAt = recordFrom + options.duration().toNanos();
+        List<LoadWorker> workers = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < options.connections(); i++) {
+            LoadWorker worker = new LoadWorker(options, mix, recordFrom, stopAt);
+            Thread thread = new Thread(worker, "loadgen-" + i);
+            workers.add(worker);
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return workers;
+    }
+
+    static ObjectNode report(LoadOptions options, RequestMix mix, List<LoadWorker> workers) {
+        Histogram latency = new Histogram();
+        Histogram corrected = new Histogram();
+        Map<Integer, Long> statuses = new TreeMap<>();
+        Map<String, Long> errors = new TreeMap<>();
+        long bytes = 0;
+        for (LoadWorker worker : workers) {
+            latency.add(worker.getLatency());
+            corrected.add(worker.getCorrectedLatency());
+            worker.getStatuses().forEach((status, count) -> statuses.merge(status, count, Long::sum));
+            worker.getErrors().forEach((type, count) -> errors.merge(type, count, Long::sum));
+            bytes += worker.getBytes();
+        }
+        double seconds = options.duration().toNanos() / 1e9;
+
+        ObjectNode report = new ObjectMapper().createObjectNode();
+        ObjectNode settings = report.putObject("options");
+        settings.put("address", options.address());
+        settings.put("port", options.port());
+        settings.put("connections", options.connections());
+        settings.put("durationSeconds", seconds);
+        settings.put("warmupSeconds", options.warmup().toNanos() / 1e9);
+        settings.put("keepAlive", options.keepAlive());
+        settings.put("rate", options.rate());
+
+        long errorCount = errors.values().stream().mapToLong(Long::longValue).sum();
+        report.put("requests", latency.getCount());
+        report.put("errors", errorCount);
+        report.put("throughput", round(latency.getCount() / seconds));
+        report.put("bytes", bytes);
+        ObjectNode statusNode = report.putObject("statuses");
+        statuses.forEach((status, count) -> statusNode.put(String.valueOf(status), count));
+        ObjectNode errorNode = report.putObject("errorTypes");
+        errors.forEach(errorNode::put);
+
+        ObjectNode latencyNode = report.putObject("latencyMillis");
+        latencyNode.set("corrected", latency(corrected));
+        latencyNode.set("uncorrected", latency(latency));
+
+        ArrayNode targets = report.putArray("targets");
+        for (RequestMix.Target target : mix.getTargets()) {
+            Histogram targetLatency = new Histogram();
+            workers.forEach(worker -> targetLatency.add(worker.getTargetLatency().get(target)));
+            ObjectNode node = targets.addObject();
+            node.put("host", target.host());
+            node.put("path", target.path());
+            node.put("weight", target.weight());
+            node.put("requests", targetLatency.getCount());
+            node.set("latencyMillis", latency(targetLatency));
+        }
+        return report;
+    }
+
+    private static ObjectNode latency(Histogram histogram) {
+        ObjectNode node = new ObjectMapper().createObjectNode();
+        node.put("min", millis(histogram.getMin()));
+        node.put("mean", round(histogram.getMean() / 1000));
+        for (double percentile : PERCENTILES) {
+            node.put("p" + String.valueOf(percentile).replace(".0", "").replace(".", "_"),
+                    millis(histogram.percentile(percentile)));
+        }
+        node.put("max", millis(histogram.getMax()));
+        return node;
+    }
+
+    private static String summary(ObjectNode report) {
+        ObjectNode corrected = (ObjectNode) report.path("latencyMillis").path("corrected");
+        ObjectNode uncorrected = (ObjectNode) report.path("latencyMillis").path("uncorrected");
+        return String.format("Requests: %d, errors: %d, throughput: %.1f req/s, statuses: %s%n"
+                        + "Latency ms (corrected)   p50 %.3f  p99 %.3f  p99.9 %.3f  max %.3f%n"
+                        + "Latency ms (uncorrected) p50 %.3f  p99 %.3f  p99.9 %.3f  max %.3f",
+                report.path("requests").asLong(), report.path("errors").asLong(),
+                report.path("throughput").asDouble(), report.path("statuses"),
+                corrected.path("p50").asDouble(), corrected.path("p99").asDouble(),
+                corrected.path("p99_9").asDouble(), corrected.path("max").asDouble(),
+                uncorrected.path("p50").asDouble(), uncorrected.path("p99").asDouble(),
+                uncorrected.path("p99_9").asDouble(), uncorrected.path("max").asDouble());
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+}
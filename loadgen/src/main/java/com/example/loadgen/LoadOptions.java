@@ -0,0 +1,93 @@
+package com.example.loadgen;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+// 명령행 옵션. 모두 "--이름 값" 형식이다.
+public record LoadOptions(
+        String address,
+        int port,
+        int connections,
+        Duration duration,
+        Duration warmup,
+        boolean keepAlive,
+        double rate,
+        int timeoutMillis,
+        Path config,
+        Path mix,
+        Path report
+) {
+    static final String USAGE = """
+            Usage: java -jar loadgen.jar [options]
+              --address <host>        server address (default localhost)
+              --port <n>              server port (default 80)
+              --connections <n>       concurrent connections (default 16)
+              --duration <time>       measured duration, e.g. 30s, 2m (default 30s)
+              --warmup <time>         unmeasured warm-up before the run (default 5s)
+              --keep-alive <bool>     reuse connections (default true)
+              --rate <n>              total requests per second, 0 = as fast as possible (default 0)
+              --timeout <ms>          socket connect/read timeout (default 5000)
+              --config <file>         server-config.json used to build the default request mix
+              --mix <file>            request mix: [{"host": "localhost", "path": "/hello", "weight": 1}]
+              --report <file>         JSON report output (default loadgen-report.json)
+            """;
+
+    public static LoadOptions parse(String[] args) {
+        String address = "localhost";
+        int port = 80;
+        int connections = 16;
+        Duration duration = Duration.ofSeconds(30);
+        Duration warmup = Duration.ofSeconds(5);
+        boolean keepAlive = true;
+        double rate = 0;
+        int timeoutMillis = 5000;
+        Path config = Path.of("server-config.json");
+        Path mix = null;
+        Path report = Path.of("loadgen-report.json");
+        for (int i = 0; i < args.length; i++) {
+            String name = args[i];
+            if (i + 1 == args.length) {
+                throw new IllegalArgumentException("Missing value for " + name);
+            }
+            String value = args[++i];
+            switch (name) {
+                case "--address" -> address = value;
+                case "--port" -> port = Integer.parseInt(value);
+                case "--connections" -> connections = Integer.parseInt(value);
+                case "--duration" -> duration = parseDuration(value);
+                case "--warmup" -> warmup = parseDuration(value);
+                case "--keep-alive" -> keepAlive = Boolean.parseBoolean(value);
+                case "--rate" -> rate = Double.parseDouble(value);
+                case "--timeout" -> timeoutMillis = Integer.parseInt(value);
+                case "--config" -> config = Path.of(value);
+                case "--mix" -> mix = Path.of(value);
+                case "--report" -> report = Path.of(value);
+                default -> throw new IllegalArgumentException("Unknown option: " + name);
+            }
+        }
+        if (connections <= 0 || duration.isZero() || duration.isNegative() || rate < 0) {
+            throw new IllegalArgumentException("connections and duration must be positive, rate must not be negative");
+        }
+        return new LoadOptions(address, port, connections, duration, warmup, keepAlive, rate, timeoutMillis,
+                config, mix, report);
+    }
+
+    // "500ms", "30s", "2m" 또는 초 단위 숫자
+    static Duration parseDuration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(value));
+    }
+
+    // 목표 처리량이 있으면 연결마다 이 간격으로 요청을 보낸다. 없으면 0.
+    long intervalNanos() {
+        return rate > 0 ? (long) (connections * 1_000_000_000L / rate) : 0;
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.loadgen;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.LockSupport;
+
+// 연결 하나를 맡아 응답을 받으면 다음 요청을 보내는 닫힌 루프.
+// 목표 처리량(--rate)이 있으면 정해진 시각마다 보내고, 지연 시간은 보냈어야 할 시각부터 잰다.
+// 값은 워커 스레드만 쓰고, 스레드가 끝난 뒤에 읽는다.
+public class LoadWorker implements Runnable {
+    private final LoadOptions options;
+    private final RequestMix mix;
+    private final long recordFrom;
+    private final long stopAt;
+    private final Map<RequestMix.Target, byte[]> requests = new HashMap<>();
+
+    private final Histogram latency = new Histogram();
+    private final Histogram scheduledLatency = new Histogram();
+    private final Map<RequestMix.Target, Histogram> targetLatency = new HashMap<>();
+    private final Map<Integer, Long> statuses = new TreeMap<>();
+    private final Map<String, Long> errors = new TreeMap<>();
+    private long bytes;
+
+    private Socket socket;
+    private OutputStream out;
+    private HttpResponseReader reader;
+
+    public LoadWorker(LoadOptions options, RequestMix mix, long recordFrom, long stopAt) {
+        this.options = options;
+        this.mix = mix;
+        this.recordFrom = recordFrom;
+        this.stopAt = stopAt;
+        for (RequestMix.Target target : mix.getTargets()) {
+            requests.put(target, target.toRequest(options.keepAlive()));
+            targetLatency.put(target, new Histogram());
+        }
+    }
+
+    @Override
+    public void run() {
+        long interval = options.intervalNanos();
+        // 연결마다 시작 시각을 흩어 두어 모든 연결이 같은 순간에 보내지 않게 한다.
+        long intended = System.nanoTime() + (interval > 0 ? (long) (Math.random() * interval) : 0);
+        try {
+            while (true) {
+                long now = System.nanoTime();
+                if (interval > 0) {
+                    while (now < intended) {
+                        LockSupport.parkNanos(intended - now);
+                        now = System.nanoTime();
+                    }
+                } else {
+                    intended = now;
+                }
+                if (now - stopAt >= 0) {
+                    break;
+                }
+                send(mix.next(), intended);
+                intended += interval;
+            }
+        } finally {
+            disconnect();
+        }
+    }
+
+    private void send(RequestMix.Target target, long intended) {
+        long start = System.nanoTime();
+        try {
+            if (socket == null) {
+                connect();
+            }
+            out.write(requests.get(target));
+            out.flush();
+            HttpResponseReader.Response response = reader.read();
+            long end = System.nanoTime();
+            if (!options.keepAlive() || response.close()) {
+                disconnect();
+            }
+            if (start - recordFrom >= 0) {
+                long micros = (end - start) / 1000;
+                latency.record(micros);
+                scheduledLatency.record((end - intended) / 1000);
+                targetLatency.get(target).record(micros);
+                statuses.merge(response.status(), 1L, Long::sum);
+                bytes += response.bytes();
+            }
+        } catch (IOException | RuntimeException e) {
+            disconnect();
+            if (start - recordFrom >= 0) {
+                errors.merge(e.getClass().getSimpleName(), 1L, Long::sum);
+            }
+            // 서버가 받지 않는 동안 헛돌지 않도록 잠깐 쉰다.
+            LockSupport.parkNanos(10_000_000L);
+        }
+    }
+
+    private void connect() throws IOException {
+        Socket newSocket = new Socket();
+        try {
+            newSocket.setTcpNoDelay(true);
+            newSocket.setSoTimeout(options.timeoutMillis());
+            newSocket.connect(new InetSocketAddress(options.address(), options.port()), options.timeoutMillis());
+        } catch (IOException e) {
+            newSocket.close();
+            throw e;
+        }
+        socket = newSocket;
+        out = socket.getOutputStream();
+        reader = new HttpResponseReader(new BufferedInputStream(socket.getInputStream(), 16 * 1024));
+    }
+
+    private void disconnect() {
+        if (socket != null) {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+            }
+            socket = null;
+        }
+    }
+
+    // 실제로 보낸 시각부터 잰 지연 시간
+    public Histogram getLatency() {
+        return latency;
+    }
+
+    // 보냈어야 할 시각부터 잰 지연 시간. 목표 처리량이 없으면 닫힌 루프 보정값으로 대신한다.
+    public Histogram getCorrectedLatency() {
+        if (options.intervalNanos() > 0) {
+            return scheduledLatency;
+        }
+        return latency.correctedForCoordinatedOmission(Math.round(latency.getMean()));
+    }
+
+    public Map<RequestMix.Target, Histogram> getTargetLatency() {
+        return targetLatency;
+    }
+
+    public Map<Integer, Long> getStatuses() {
+        return statuses;
+    }
+
+    public Map<String, Long> getErrors() {
+        return errors;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.loadgen;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+// 가중치에 따라 요청 대상을 고른다.
+public class RequestMix {
+    private final List<Target> targets;
+    private final int[] cumulativeWeights;
+    private final int totalWeight;
+
+    public RequestMix(List<Target> targets) {
+        if (targets.isEmpty()) {
+            throw new IllegalArgumentException("Request mix is empty");
+        }
+        this.targets = List.copyOf(targets);
+        this.cumulativeWeights = new int[targets.size()];
+        int total = 0;
+        for (int i = 0; i < targets.size(); i++) {
+            total += targets.get(i).weight();
+            cumulativeWeights[i] = total;
+        }
+        this.totalWeight = total;
+    }
+
+    // [{"host": "localhost", "path": "/hello", "weight": 1}, ...]
+    public static RequestMix fromFile(Path file) throws IOException {
+        List<Target> targets = new ArrayList<>();
+        for (JsonNode node : new ObjectMapper().readTree(file.toFile())) {
+            targets.add(new Target(node.path("host").asText("localhost"), node.path("path").asText("/"),
+                    node.path("weight").asInt(1)));
+        }
+        return new RequestMix(targets);
+    }
+
+    // server-config.json의 호스트마다 시작 페이지, 그리고 정확히 일치하는 서블릿 경로를 같은 비중으로 섞는다.
+    // 전역 서블릿은 defaultHost로, hosts[].servlets는 그 호스트로 보낸다. /metrics 같은 계측 서블릿은 뺀다.
+    public static RequestMix fromServerConfig(Path file) throws IOException {
+        JsonNode root = new ObjectMapper().readTree(file.toFile());
+        Set<Target> targets = new LinkedHashSet<>();
+        String defaultHost = root.path("defaultHost").asText(null);
+        for (JsonNode host : root.path("hosts")) {
+            String name = host.path("name").asText();
+            if (defaultHost == null) {
+                defaultHost = name;
+            }
+            String welcomeFile = host.path("welcomeFile").asText("");
+            targets.add(new Target(name, "/" + welcomeFile, 1));
+            addServletPaths(targets, host.path("servlets"), name);
+        }
+        addServletPaths(targets, root.path("servlets"), defaultHost != null ? defaultHost : "localhost");
+        return new RequestMix(new ArrayList<>(targets));
+    }
+
+    private static void addServletPaths(Set<Target> targets, JsonNode servlets, String host) {
+        for (JsonNode servlet : servlets) {
+            if (servlet.path("className").asText().startsWith("com.example.metrics.")) {
+                continue;
+            }
+            for (JsonNode pattern : servlet.path("urlPatterns")) {
+                String path = pattern.asText();
+                if (path.startsWith("/") && !path.equals("/") && !path.contains("*") && !path.contains("{")) {
+                    targets.add(new Target(host, path, 1));
+                }
+            }
+        }
+    }
+
+    public Target next() {
+        int pick = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (pick < cumulativeWeights[i]) {
+                return targets.get(i);
+            }
+        }
+        return targets.get(targets.size() - 1);
+    }
+
+    public List<Target> getTargets() {
+        return targets;
+    }
+
+    public record Target(String host, String path, int weight) {
+        public Target {
+            if (weight <= 0) {
+                throw new IllegalArgumentException("Weight must be positive: " + host + path);
+            }
+        }
+
+        byte[] toRequest(boolean keepAlive) {
+            return ("GET " + path + " HTTP/1.1\r\n" +
+                    "Host: " + host + "\r\n" +
+                    "User-Agent: simple-was-loadgen\r\n" +
+                    (keepAlive ? "" : "Connection: close\r\n") +
+                    "\r\n").getBytes(StandardCharsets.US_ASCII);
+        }
+
+        @Override
+        public String toString() {
+            return host + path;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.loadgen;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class HistogramTest {
+    @Test
+    public void testBucketBounds() {
+        for (long micros : new long[]{0, 1, 127, 128, 129, 1000, 123_456, 9_999_999}) {
+            int index = Histogram.index(micros);
+            assertTrue(micros >= Histogram.lowerBound(index));
+            assertTrue(micros < Histogram.upperBound(index));
+        }
+        // 상대 오차는 1% 이내
+        int index = Histogram.index(123_456);
+        assertTrue(Histogram.upperBound(index) - Histogram.lowerBound(index) <= 123_456 / 100);
+    }
+
+    @Test
+    public void testPercentiles() {
+        Histogram histogram = new Histogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i * 1000L);
+        }
+        assertEquals(100, histogram.getCount());
+        assertEquals(1000, histogram.getMin());
+        assertEquals(100_000, histogram.getMax());
+        assertEquals(50_500, histogram.getMean(), 0.001);
+        assertEquals(50_000, histogram.percentile(50), 50_000 / 100);
+        assertEquals(99_000, histogram.percentile(99), 99_000 / 100);
+        assertEquals(100_000, histogram.percentile(100));
+    }
+
+    @Test
+    public void testCoordinatedOmissionCorrection() {
+        // 1ms 간격으로 보내던 중 한 번 100ms 멈췄다면 그동안 보내지 못한 99개 요청이 채워져야 한다.
+        Histogram histogram = new Histogram();
+        for (int i = 0; i < 99; i++) {
+            histogram.record(1000);
+        }
+        histogram.record(100_000);
+        Histogram corrected = histogram.correctedForCoordinatedOmission(1000);
+        assertEquals(100, histogram.getCount());
+        assertEquals(1000, histogram.percentile(99), 1000 / 100);
+        assertTrue(corrected.getCount() >= 197);
+        assertTrue(corrected.percentile(90) > 50_000);
+        assertEquals(histogram.getMax(), corrected.getMax());
+    }
+
+    @Test
+    public void testResponseReader() throws Exception {
+        String responses = "HTTP/1.1 200 OK\r\nContent-Length: 5\r\n\r\nhello" +
+                "HTTP/1.1 200 OK\r\nTransfer-Encoding: chunked\r\n\r\n3\r\nabc\r\n2;x=y\r\nde\r\n0\r\n\r\n" +
+                "HTTP/1.1 404 Not Found\r\nContent-Length: 0\r\nConnection: close\r\n\r\n";
+        HttpResponseReader reader = new HttpResponseReader(
+                new java.io.ByteArrayInputStream(responses.getBytes(java.nio.charset.StandardCharsets.US_ASCII)));
+        assertEquals(new HttpResponseReader.Response(200, 5, false), reader.read());
+        assertEquals(new HttpResponseReader.Response(200, 5, false), reader.read());
+        assertEquals(new HttpResponseReader.Response(404, 0, true), reader.read());
+    }
+}
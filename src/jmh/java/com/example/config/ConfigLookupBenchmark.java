@@ -0,0 +1,45 @@
+package com.example.config;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// 요청마다 Config에 묻는 값들 (server-config.json 기준). 저장소 루트에서 실행한다.
+//   java -jar target/benchmarks.jar ConfigLookupBenchmark -prof gc
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ConfigLookupBenchmark {
+    @Param({"/index.html", "/static/css/site.min.css", "/test.exe", "/WEB-INF/web.xml"})
+    public String path;
+
+    private Config config;
+
+    @Setup
+    public void setUp() {
+        config = Config.load("server-config.json");
+    }
+
+    @Benchmark
+    public boolean isPathForbidden() {
+        return config.isPathForbidden(path);
+    }
+
+    @Benchmark
+    public VirtualHost resolveHost() {
+        return config.resolveHost("Example.com", 80);
+    }
+}
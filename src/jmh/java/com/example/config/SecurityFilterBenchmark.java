@@ -0,0 +1,71 @@
+package com.example.config;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+// 금지 경로 검사 비교. 규칙 수(rules)를 늘려도 compiled 는 거의 일정해야 한다.
+//   java -jar target/benchmarks.jar SecurityFilterBenchmark
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SecurityFilterBenchmark {
+    @Param({"10", "1000", "5000"})
+    public int rules;
+
+    // 어떤 규칙에도 걸리지 않는 요청이 가장 비싸다 (모든 규칙을 확인해야 하므로).
+    @Param({"/static/css/site.min.css", "/docs/report.bak8"})
+    public String path;
+
+    private List<Pattern> patterns;
+    private List<String> extensions;
+    private List<String> paths;
+    private SecurityFilter filter;
+
+    @Setup
+    public void setUp() {
+        List<String> patternRules = new ArrayList<>();
+        extensions = new ArrayList<>();
+        paths = new ArrayList<>();
+        for (int i = 0; i < rules; i++) {
+            switch (i % 4) {
+                case 0 -> patternRules.add(".*\\.bak" + i + "$");
+                case 1 -> patternRules.add(".*/secret" + i + "/.*");
+                case 2 -> extensions.add(".ext" + i);
+                default -> paths.add("/private" + i);
+            }
+        }
+        patterns = patternRules.stream().map(Pattern::compile).collect(Collectors.toList());
+        filter = new SecurityFilter(patternRules, extensions, paths);
+    }
+
+    // 변경 전 RequestHandler.isForbiddenPath 와 같은 방식
+    @Benchmark
+    public boolean legacy() {
+        return patterns.stream().anyMatch(pattern -> pattern.matcher(path).matches())
+                || extensions.stream().anyMatch(path::endsWith)
+                || paths.stream().anyMatch(path::equals);
+    }
+
+    @Benchmark
+    public boolean compiled() {
+        return filter.isForbidden(path);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.http;
+
+import com.example.config.Config;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+// 브라우저가 보내는 크기의 요청 헤더 파싱.
+//   java -jar target/benchmarks.jar RequestParserBenchmark -prof gc
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RequestParserBenchmark {
+    private static final byte[] REQUEST = ("GET /static/css/site.min.css?v=20261017 HTTP/1.1\r\n" +
+            "Host: localhost\r\n" +
+            "User-Agent: Mozilla/5.0 (X11; Linux x86_64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/129.0 Safari/537.36\r\n" +
+            "Accept: text/css,*/*;q=0.1\r\n" +
+            "Accept-Language: ko-KR,ko;q=0.9,en-US;q=0.8,en;q=0.7\r\n" +
+            "Accept-Encoding: gzip, deflate, br\r\n" +
+            "Referer: http://localhost/index.html\r\n" +
+            "Cookie: session=6f1c2d9e8a7b4c3d; theme=dark\r\n" +
+            "If-None-Match: \"1a2b-18c4f2e1a00\"\r\n" +
+            "Connection: keep-alive\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+
+    private final Config.RequestConfig limits = new Config.RequestConfig(0, 0, 0, 0, null);
+    private HttpRequestParser parser;
+    private ByteBuffer buffer;
+
+    @Setup
+    public void setUp() {
+        parser = new HttpRequestParser(limits);
+        buffer = ByteBuffer.wrap(REQUEST);
+    }
+
+    // 연결이 재사용하는 파서로 헤더를 읽고, 요청 처리 중에 쓰는 값들을 꺼낸다.
+    @Benchmark
+    public void parse(Blackhole blackhole) {
+        buffer.clear();
+        parser.parse(buffer);
+        SimpleHttpRequest request = parser.take(buffer);
+        blackhole.consume(request.getMethod());
+        blackhole.consume(request.getPath());
+        blackhole.consume(request.getHost());
+        blackhole.consume(request.getHeader("Accept-Encoding"));
+        blackhole.consume(request.isKeepAlive());
+    }
+
+    // 블로킹 커넥터 경로: 새 RequestReader가 스트림에서 읽어 본문까지 준비한다.
+    @Benchmark
+    public SimpleHttpRequest readRequest() throws IOException {
+        return new RequestReader(new ByteArrayInputStream(REQUEST), limits).readRequest();
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.http;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// 응답 헤더 직렬화 비교. 응답 하나당 할당량은 -prof gc 의 gc.alloc.rate.norm 으로 본다.
+//   java -jar target/benchmarks.jar ResponseHeaderBenchmark -prof gc
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ResponseHeaderBenchmark {
+    private static final DateTimeFormatter LEGACY_DATE_FORMATTER =
+        DateTimeFormatter.ofPattern("EEE, dd MMM yyyy HH:mm:ss z");
+
+    private final Map<String, String> headers = new HashMap<>();
+    private OutputStream sink;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        headers.put("Cache-Control", "public, max-age=86400");
+        headers.put("ETag", "\"1a2b-18c4f2e1a00\"");
+        headers.put("Last-Modified", "Sat, 17 Oct 2026 04:39:54 GMT");
+        sink = new OutputStream() {
+            @Override
+            public void write(int b) {
+                blackhole.consume(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                blackhole.consume(b);
+            }
+        };
+    }
+
+    // 변경 전 SimpleHttpResponse.sendHeaders 와 같은 방식
+    @Benchmark
+    public void legacyStringBuilder() throws IOException {
+        StringBuilder headerBuilder = new StringBuilder();
+        headerBuilder.append("HTTP/1.1 ").append(200).append(" ").append("OK").append("\r\n");
+        headerBuilder.append("Content-Type: ").append("text/css").append("\r\n");
+        headerBuilder.append("Content-Length: ").append(6789L).append("\r\n");
+        headerBuilder.append("Connection: ").append("keep-alive").append("\r\n");
+        headerBuilder.append("Date: ").append(ZonedDateTime.now().format(LEGACY_DATE_FORMATTER)).append("\r\n");
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            headerBuilder.append(header.getKey()).append(": ").append(header.getValue()).append("\r\n");
+        }
+        headerBuilder.append("\r\n");
+        sink.write(headerBuilder.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public void headerEncoder() throws IOException {
+        HeaderEncoder encoder = HeaderEncoder.acquire();
+        encoder.statusLine(200, "OK");
+        encoder.header(HeaderEncoder.CONTENT_TYPE, "text/css");
+        encoder.header(HeaderEncoder.CONTENT_LENGTH, 6789L);
+        encoder.line(HeaderEncoder.CONNECTION_KEEP_ALIVE);
+        encoder.line(DateHeader.current());
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            encoder.header(header.getKey(), header.getValue());
+        }
+        encoder.end();
+        encoder.writeTo(sink);
+    }
+
+    // SimpleHttpResponse 전체 (응답 객체 생성 + 헤더 + 빈 본문)
+    @Benchmark
+    public void simpleHttpResponse() throws IOException {
+        SimpleHttpResponse response = new SimpleHttpResponse(sink, null, null);
+        response.setKeepAlive(true);
+        response.setContentType("text/css");
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            response.setHeader(header.getKey(), header.getValue());
+        }
+        response.finish();
+    }
+}
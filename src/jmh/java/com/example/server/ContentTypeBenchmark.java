@@ -0,0 +1,41 @@
+package com.example.server;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+// 정적 파일의 Content-Type 결정. 표에 없는 확장자는 처음 한 번만 probeContentType을 부른다.
+//   java -jar target/benchmarks.jar ContentTypeBenchmark -prof gc
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ContentTypeBenchmark {
+    @Param({"index.html", "site.min.css", "logo.png", "report.pdf"})
+    public String fileName;
+
+    private Path file;
+
+    @Setup
+    public void setUp() {
+        file = Path.of("webapp/www/localhost/static").resolve(fileName);
+    }
+
+    @Benchmark
+    public String determineContentType() {
+        return RequestHandler.determineContentType(file);
+    }
+}
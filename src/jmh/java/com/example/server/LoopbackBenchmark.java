@@ -0,0 +1,183 @@
+package com.example.server;
+
+import com.example.config.Config;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+// 같은 프로세스에서 서버를 띄우고 루프백 소켓으로 keep-alive 요청을 보내는 전체 경로 측정.
+// 클라이언트와 서버가 같은 JVM에 있으므로 -prof gc 의 할당량은 양쪽을 합친 값이다.
+// 저장소 루트에서 실행한다. 접근 로그는 끄고 측정한다.
+//   java -jar target/benchmarks.jar LoopbackBenchmark -prof gc
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class LoopbackBenchmark {
+    private static final int PORT = 18080;
+
+    @State(Scope.Benchmark)
+    public static class Server {
+        @Param({"blocking", "nio"})
+        public String connector;
+
+        private HttpServer server;
+        private Thread acceptor;
+
+        @Setup(Level.Trial)
+        public void start() throws Exception {
+            ObjectMapper mapper = new ObjectMapper();
+            ObjectNode root = (ObjectNode) mapper.readTree(new File("server-config.json"));
+            root.put("port", PORT);
+            ((ObjectNode) root.get("connector")).put("type", connector);
+            ((ObjectNode) root.get("accessLog")).put("enabled", false);
+            File file = File.createTempFile("server-config", ".json");
+            file.deleteOnExit();
+            mapper.writeValue(file, root);
+
+            server = new HttpServer(Config.load(file.getPath()));
+            acceptor = new Thread(server::start, "benchmark-server");
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() throws InterruptedException {
+            server.stop();
+            acceptor.join(5000);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Client {
+        private Socket socket;
+        private OutputStream out;
+        private InputStream in;
+
+        @Setup(Level.Trial)
+        public void connect(Server server) throws IOException {
+            IOException last = null;
+            // 서버의 accept 준비를 잠깐 기다린다.
+            for (int i = 0; i < 50; i++) {
+                try {
+                    open();
+                    return;
+                } catch (IOException e) {
+                    last = e;
+                    sleep();
+                }
+            }
+            throw last;
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws IOException {
+            socket.close();
+        }
+
+        private void open() throws IOException {
+            socket = new Socket("localhost", PORT);
+            socket.setTcpNoDelay(true);
+            out = socket.getOutputStream();
+            in = new BufferedInputStream(socket.getInputStream(), 16 * 1024);
+        }
+
+        // 헤더를 읽고 Content-Length 만큼 본문을 버린다. 응답 크기를 돌려준다.
+        long exchange(byte[] request) throws IOException {
+            out.write(request);
+            out.flush();
+            StringBuilder head = new StringBuilder(256);
+            // 마지막 4바이트가 "\r\n\r\n"이면 헤더 끝
+            int tail = 0;
+            while (tail != 0x0D0A0D0A) {
+                int b = in.read();
+                if (b < 0) {
+                    throw new EOFException("Connection closed by server");
+                }
+                head.append((char) b);
+                tail = (tail << 8) | b;
+            }
+            long length = 0;
+            boolean close = false;
+            for (String line : head.toString().split("\r\n")) {
+                if (line.regionMatches(true, 0, "Content-Length:", 0, 15)) {
+                    length = Long.parseLong(line.substring(15).trim());
+                } else if (line.regionMatches(true, 0, "Connection: close", 0, 17)) {
+                    close = true;
+                }
+            }
+            long remaining = length;
+            while (remaining > 0) {
+                long skipped = in.skip(remaining);
+                if (skipped <= 0) {
+                    if (in.read() < 0) {
+                        throw new EOFException("Connection closed in the middle of a body");
+                    }
+                    skipped = 1;
+                }
+                remaining -= skipped;
+            }
+            // maxRequestsPerConnection에 닿으면 서버가 연결을 닫으므로 다시 연결한다.
+            if (close) {
+                socket.close();
+                open();
+            }
+            return head.length() + length;
+        }
+
+        private static void sleep() {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static final byte[] SERVLET_REQUEST = ("GET /hello HTTP/1.1\r\n" +
+            "Host: localhost\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] STATIC_REQUEST = ("GET /index.html HTTP/1.1\r\n" +
+            "Host: localhost\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NOT_FOUND_REQUEST = ("GET /missing.html HTTP/1.1\r\n" +
+            "Host: localhost\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+
+    @Benchmark
+    public long servlet(Server server, Client client) throws IOException {
+        return client.exchange(SERVLET_REQUEST);
+    }
+
+    @Benchmark
+    public long staticFile(Server server, Client client) throws IOException {
+        return client.exchange(STATIC_REQUEST);
+    }
+
+    @Benchmark
+    public long notFound(Server server, Client client) throws IOException {
+        return client.exchange(NOT_FOUND_REQUEST);
+    }
+}
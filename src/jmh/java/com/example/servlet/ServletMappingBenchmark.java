@@ -0,0 +1,57 @@
+package com.example.servlet;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// 서블릿 조회. 정적 파일 요청은 어느 패턴에도 맞지 않으므로 가장 많이 도는 경로다.
+//   java -jar target/benchmarks.jar ServletMappingBenchmark -prof gc
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ServletMappingBenchmark {
+    @Param({"/time", "/users/42/orders", "/api/v1/items", "/legacy/list.do", "/static/css/site.min.css"})
+    public String path;
+
+    private ServletMapping mapping;
+
+    @Setup
+    public void setUp() {
+        mapping = new ServletMapping();
+        SimpleServlet servlet = (request, response) -> { };
+        mapping.addMapping("/time", servlet);
+        mapping.addMapping("/hello", servlet);
+        mapping.addMapping("/service.Time", servlet);
+        mapping.addMapping("/users/{id}/orders", servlet);
+        mapping.addMapping("/api/*", servlet);
+        mapping.addMapping("/api/v2/*", servlet);
+        mapping.addMapping("*.do", servlet);
+        for (int i = 0; i < 50; i++) {
+            mapping.addMapping("/service" + i + "/endpoint", servlet);
+        }
+    }
+
+    @Benchmark
+    public SimpleServlet getServlet() {
+        return mapping.getServlet(path);
+    }
+
+    // 경로 변수를 꺼내는 RequestHandler 쪽 호출
+    @Benchmark
+    public ServletMatch match() {
+        return mapping.match(path);
+    }
+}
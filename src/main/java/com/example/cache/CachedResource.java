@@ -0,0 +1,87 @@
+package com.example.cache;
+
+import com.example.http.ContentEncoding;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+@Getter
+public class CachedResource {
+    private final Path source;
+    private final byte[] content;
+    private final String contentType;
+    private final long lastModified;
+    private final String etag;
+    // 제공할 수 있는 Content-Encoding (미리 압축된 파일 + 실행 중 압축 가능한 코딩)
+    private final Set<String> encodings;
+    // 확인한 .br/.gz 형제 파일의 상태 (없던 파일은 MISSING). 형제 파일만 바뀌어도 다시 읽기 위해 둔다.
+    @Getter(AccessLevel.PACKAGE)
+    private final Map<String, FileStamp> siblings;
+    // 미리 압축된 본문의 ETag는 그 파일에서 만든다.
+    @Getter(AccessLevel.NONE)
+    private final Map<String, String> precompressedEtags;
+    private volatile Map<String, byte[]> variants;
+    private volatile long lastValidated;
+
+    public CachedResource(Path source, byte[] content, String contentType, long lastModified,
+                          Set<String> encodings, Map<String, byte[]> precompressed, Map<String, FileStamp> siblings) {
+        this.source = source;
+        this.content = content;
+        this.contentType = contentType;
+        this.lastModified = lastModified;
+        this.etag = etag(content.length, lastModified);
+        this.encodings = Set.copyOf(encodings);
+        this.variants = Map.copyOf(precompressed);
+        this.siblings = Map.copyOf(siblings);
+        Map<String, String> precompressedEtags = new HashMap<>();
+        for (String encoding : precompressed.keySet()) {
+            FileStamp sibling = siblings.get(encoding);
+            if (sibling != null && sibling.exists()) {
+                precompressedEtags.put(encoding, etag(sibling.size(), sibling.lastModified()));
+            }
+        }
+        this.precompressedEtags = Map.copyOf(precompressedEtags);
+        this.lastValidated = System.currentTimeMillis();
+    }
+
+    public static String etag(long length, long lastModified) {
+        return "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+    }
+
+    // Content-Encoding별 ETag. 미리 압축된 파일이면 그 파일의 크기와 수정 시각으로 만든다.
+    public String getEtag(String encoding) {
+        return ContentEncoding.tagEtag(precompressedEtags.getOrDefault(encoding, etag), encoding);
+    }
+
+    public long getLength() {
+        return content.length;
+    }
+
+    public byte[] getVariant(String encoding) {
+        return variants.get(encoding);
+    }
+
+    // 캐시가 차지하는 전체 바이트 (원본 + 압축본)
+    long getFootprint() {
+        long footprint = content.length;
+        for (byte[] variant : variants.values()) {
+            footprint += variant.length;
+        }
+        return footprint;
+    }
+
+    // StaticResourceCache의 잠금 안에서만 호출된다.
+    void addVariant(String encoding, byte[] variant) {
+        Map<String, byte[]> updated = new HashMap<>(variants);
+        updated.put(encoding, variant);
+        this.variants = Map.copyOf(updated);
+    }
+
+    void markValidated(long now) {
+        this.lastValidated = now;
+    }
+}
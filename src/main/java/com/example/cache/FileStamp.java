@@ -0,0 +1,29 @@
+package com.example.cache;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+
+// 파일이 바뀌었는지 비교하기 위한 크기와 수정 시각. 일반 파일이 아니거나 읽을 수 없으면 MISSING.
+record FileStamp(long size, long lastModified) {
+    static final FileStamp MISSING = new FileStamp(-1, -1);
+
+    static FileStamp of(Path file) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class,
+                    LinkOption.NOFOLLOW_LINKS);
+            if (!attributes.isRegularFile()) {
+                return MISSING;
+            }
+            return new FileStamp(attributes.size(), attributes.lastModifiedTime().toMillis());
+        } catch (IOException e) {
+            return MISSING;
+        }
+    }
+
+    boolean exists() {
+        return this != MISSING;
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+// 문서 루트 아래의 변경을 감시해 캐시를 무효화한다. WatchService는 디렉터리 단위라서
+// 하위 디렉터리를 모두 등록하고, 새로 생긴 디렉터리도 이어서 등록한다.
+@Slf4j
+public class FileWatcher implements Closeable {
+    private final WatchService watchService;
+    private final Map<WatchKey, Registration> registrations = new ConcurrentHashMap<>();
+    private final Thread thread;
+
+    private record Registration(Path directory, Consumer<Path> onChange, Runnable onOverflow) {}
+
+    public FileWatcher() throws IOException {
+        this.watchService = FileSystems.getDefault().newWatchService();
+        this.thread = new Thread(this::run, "file-watcher");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    // root 아래의 파일이 생기거나 바뀌거나 지워지면 onChange(경로)를 부른다.
+    // 이벤트를 놓쳤을 때(OVERFLOW)는 onOverflow를 부른다.
+    public void watch(Path root, Consumer<Path> onChange, Runnable onOverflow) throws IOException {
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attributes) throws IOException {
+                register(dir, onChange, onOverflow);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) {
+                log.warn("Cannot watch {}: {}", file, e.getMessage());
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private void register(Path directory, Consumer<Path> onChange, Runnable onOverflow) throws IOException {
+        WatchKey key = directory.register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE);
+        registrations.put(key, new Registration(directory, onChange, onOverflow));
+    }
+
+    private void run() {
+        while (true) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+            Registration registration = registrations.get(key);
+            if (registration != null) {
+                handle(registration, key);
+            }
+            if (!key.reset()) {
+                registrations.remove(key);
+            }
+        }
+    }
+
+    private void handle(Registration registration, WatchKey key) {
+        for (WatchEvent<?> event : key.pollEvents()) {
+            try {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    registration.onOverflow().run();
+                    continue;
+                }
+                Path changed = registration.directory().resolve((Path) event.context());
+                registration.onChange().accept(changed);
+                if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(changed)) {
+                    watch(changed, registration.onChange(), registration.onOverflow());
+                }
+            } catch (IOException | RuntimeException e) {
+                log.warn("Failed to handle file change in {}: {}", registration.directory(), e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+}
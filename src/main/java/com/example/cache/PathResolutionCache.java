@@ -0,0 +1,151 @@
+package com.example.cache;
+
+import com.example.config.Config;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// 호스트 하나의 요청 경로 -> 파일 확인 결과 캐시.
+// 경로 탈출, 심볼릭 링크, 읽기 권한 검사와 파일 속성 조회를 처음 한 번만 하고, 이후에는 맵 조회로 끝낸다.
+// 파일이 바뀌면 FileWatcher가 invalidate를 부르고, 감시가 안 되는 경우를 위해 revalidateMillis가 지나면 다시 확인한다.
+@Slf4j
+public class PathResolutionCache {
+    private final String host;
+    private final Path docBase;
+    private final Config.PathCacheConfig cacheConfig;
+    private final LinkedHashMap<String, ResolvedPath> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private volatile Path realDocBase;
+    // 확인하는 동안 무효화가 일어났으면 오래된 결과를 넣지 않기 위한 세대 번호
+    private long generation;
+
+    public PathResolutionCache(String host, Path docBase, Config.PathCacheConfig cacheConfig) {
+        this.host = host;
+        this.docBase = docBase;
+        this.cacheConfig = cacheConfig;
+    }
+
+    // relativePath는 docBase 기준 경로다 (요청 경로에서 앞의 "/"를 뺀 것).
+    public ResolvedPath resolve(String relativePath) {
+        if (!cacheConfig.enabled()) {
+            return check(relativePath, System.currentTimeMillis());
+        }
+        long now = System.currentTimeMillis();
+        ResolvedPath resolved;
+        long checkedGeneration;
+        synchronized (this) {
+            resolved = entries.get(relativePath);
+            checkedGeneration = generation;
+        }
+        if (resolved != null && now - resolved.resolvedAt() < cacheConfig.revalidateMillis()) {
+            hits.increment();
+            return resolved;
+        }
+        misses.increment();
+        resolved = check(relativePath, now);
+        put(relativePath, resolved, checkedGeneration);
+        return resolved;
+    }
+
+    private ResolvedPath check(String relativePath, long now) {
+        Path file = docBase.resolve(relativePath).normalize();
+        // 1. 정규화된 경로가 docBase를 벗어나거나 상위 디렉터리 참조가 남아 있으면 거부
+        String normalizedPath = file.toString();
+        if (!file.startsWith(docBase) || normalizedPath.contains("..") || normalizedPath.contains("~")) {
+            return ResolvedPath.of(file, ResolvedPath.Type.FORBIDDEN, now);
+        }
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            // 2. 심볼릭 링크(중간 디렉터리 포함)를 따라간 실제 경로도 docBase 안이어야 한다.
+            Path realPath = file.toRealPath();
+            Path realRoot = realDocBase();
+            if (realRoot == null || !realPath.startsWith(realRoot)) {
+                return ResolvedPath.of(file, ResolvedPath.Type.FORBIDDEN, now);
+            }
+            // 3. 읽기 권한
+            if (!Files.isReadable(file)) {
+                return ResolvedPath.of(file, ResolvedPath.Type.FORBIDDEN, now);
+            }
+            ResolvedPath.Type type = attributes.isDirectory() ? ResolvedPath.Type.DIRECTORY : ResolvedPath.Type.FILE;
+            return new ResolvedPath(file, realPath, type, attributes.size(),
+                    attributes.lastModifiedTime().toMillis(), now);
+        } catch (NoSuchFileException e) {
+            return ResolvedPath.of(file, ResolvedPath.Type.MISSING, now);
+        } catch (IOException | SecurityException e) {
+            log.warn("Failed to resolve {} for host {}: {}", file, host, e.getMessage());
+            return ResolvedPath.of(file, ResolvedPath.Type.FORBIDDEN, now);
+        }
+    }
+
+    private Path realDocBase() {
+        Path realRoot = realDocBase;
+        if (realRoot == null) {
+            try {
+                realRoot = docBase.toRealPath();
+                realDocBase = realRoot;
+            } catch (IOException e) {
+                return null;
+            }
+        }
+        return realRoot;
+    }
+
+    // changed 또는 그 아래의 파일을 가리키는 항목을 지운다 (디렉터리가 바뀌면 그 아래 전체).
+    public synchronized void invalidate(Path changed) {
+        generation++;
+        Path absolute = changed.toAbsolutePath().normalize();
+        Iterator<ResolvedPath> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            ResolvedPath resolved = iterator.next();
+            if (resolved.file().startsWith(changed)
+                    || (resolved.realPath() != null && resolved.realPath().startsWith(absolute))) {
+                iterator.remove();
+            }
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        generation++;
+        entries.clear();
+        realDocBase = null;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private synchronized void put(String relativePath, ResolvedPath resolved, long checkedGeneration) {
+        if (checkedGeneration != generation) {
+            return;
+        }
+        entries.put(relativePath, resolved);
+        Iterator<Map.Entry<String, ResolvedPath>> eldest = entries.entrySet().iterator();
+        while (entries.size() > cacheConfig.maxEntries() && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "PathResolutionCache{host=" + host + ", entries=" + size()
+                + ", hits=" + getHits() + ", misses=" + getMisses() + "}";
+    }
+}
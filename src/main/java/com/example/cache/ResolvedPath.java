@@ -0,0 +1,28 @@
+package com.example.cache;
+
+import java.nio.file.Path;
+
+// 요청 경로를 파일 시스템에서 확인한 결과. 안전성 검사를 통과했을 때만 FILE/DIRECTORY가 된다.
+public record ResolvedPath(Path file, Path realPath, Type type, long size, long lastModified, long resolvedAt) {
+    public enum Type { FILE, DIRECTORY, MISSING, FORBIDDEN }
+
+    static ResolvedPath of(Path file, Type type, long resolvedAt) {
+        return new ResolvedPath(file, null, type, 0, 0, resolvedAt);
+    }
+
+    public boolean isFile() {
+        return type == Type.FILE;
+    }
+
+    public boolean isDirectory() {
+        return type == Type.DIRECTORY;
+    }
+
+    public boolean isForbidden() {
+        return type == Type.FORBIDDEN;
+    }
+
+    public boolean isMissing() {
+        return type == Type.MISSING;
+    }
+}
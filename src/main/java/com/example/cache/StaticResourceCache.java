@@ -0,0 +1,235 @@
+package com.example.cache;
+
+import com.example.config.Config;
+import com.example.http.ContentEncoding;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+// 호스트 하나의 정적 파일 캐시. 전체 바이트 수로 크기를 제한하고 LRU 순서로 내보낸다.
+@Slf4j
+public class StaticResourceCache {
+    private final String host;
+    private final Config.StaticCacheConfig cacheConfig;
+    private final Config.CompressionConfig compressionConfig;
+    private final LinkedHashMap<Path, CachedResource> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private long totalBytes;
+
+    public StaticResourceCache(String host, Config.StaticCacheConfig cacheConfig,
+                               Config.CompressionConfig compressionConfig) {
+        this.host = host;
+        this.cacheConfig = cacheConfig;
+        this.compressionConfig = compressionConfig;
+    }
+
+    // 캐시된 자원을 돌려준다. 검증 주기가 지났으면 mtime과 크기를 다시 확인한다.
+    public CachedResource get(Path key) {
+        CachedResource resource;
+        synchronized (this) {
+            resource = entries.get(key);
+        }
+        if (resource == null) {
+            misses.increment();
+            return null;
+        }
+
+        long now = System.currentTimeMillis();
+        if (now - resource.getLastValidated() >= cacheConfig.revalidateMillis() && !isUnchanged(resource)) {
+            remove(key);
+            misses.increment();
+            return null;
+        }
+        resource.markValidated(now);
+        hits.increment();
+        return resource;
+    }
+
+    public boolean isCacheable(long size) {
+        return cacheConfig.enabled() && size <= cacheConfig.maxEntryBytes() && size <= cacheConfig.maxBytes();
+    }
+
+    // 파일을 읽어 캐시에 넣는다. 호출 전에 경로 안전성 검사를 마쳐야 한다.
+    public CachedResource load(Path key, Path source, String contentType) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(source, BasicFileAttributes.class);
+        byte[] content = Files.readAllBytes(source);
+
+        Set<String> encodings = new HashSet<>();
+        Map<String, byte[]> precompressed = new HashMap<>();
+        Map<String, FileStamp> siblings = new HashMap<>();
+        if (compressionConfig.enabled()) {
+            loadPrecompressed(source, ContentEncoding.BROTLI, encodings, precompressed, siblings);
+            loadPrecompressed(source, ContentEncoding.GZIP, encodings, precompressed, siblings);
+            if (compressionConfig.isCompressible(contentType, content.length)) {
+                encodings.addAll(ContentEncoding.ON_THE_FLY);
+            }
+        }
+
+        CachedResource resource = new CachedResource(source, content, contentType,
+                attributes.lastModifiedTime().toMillis(), encodings, precompressed, siblings);
+        put(key, resource);
+        return resource;
+    }
+
+    // 원본 옆의 .br/.gz 파일을 읽는다. 원본과 같은 디렉터리의 일반 파일만 사용한다.
+    // 쓰지 않은 형제 파일도 상태를 남겨, 나중에 생기거나 바뀌면 항목을 다시 읽게 한다.
+    private void loadPrecompressed(Path source, String encoding, Set<String> encodings,
+                                   Map<String, byte[]> precompressed, Map<String, FileStamp> siblings)
+            throws IOException {
+        Path sibling = sibling(source, encoding);
+        FileStamp stamp = FileStamp.of(sibling);
+        siblings.put(encoding, stamp);
+        if (stamp.exists() && stamp.size() <= cacheConfig.maxEntryBytes()) {
+            precompressed.put(encoding, Files.readAllBytes(sibling));
+            encodings.add(encoding);
+        }
+    }
+
+    private static Path sibling(Path source, String encoding) {
+        return source.resolveSibling(source.getFileName() + ContentEncoding.precompressedSuffix(encoding));
+    }
+
+    // 인코딩된 본문을 돌려준다. 실행 중 압축한 결과는 캐시에 함께 보관한다.
+    public byte[] getEncoded(Path key, CachedResource resource, String encoding) throws IOException {
+        byte[] encoded = resource.getVariant(encoding);
+        if (encoded != null) {
+            return encoded;
+        }
+        encoded = ContentEncoding.compress(resource.getContent(), encoding);
+        synchronized (this) {
+            if (resource.getVariant(encoding) == null) {
+                resource.addVariant(encoding, encoded);
+                if (entries.get(key) == resource) {
+                    totalBytes += encoded.length;
+                    evictOverflow();
+                }
+            }
+        }
+        return encoded;
+    }
+
+    // changed 또는 그 아래의 파일에서 읽은 항목을 지운다. 미리 압축된 형제 파일이면 원본 항목을 지운다.
+    public synchronized void invalidate(Path changed) {
+        evict(changed);
+        Path original = precompressedOriginal(changed);
+        if (original != null) {
+            evict(original);
+        }
+    }
+
+    private static Path precompressedOriginal(Path path) {
+        Path fileName = path.getFileName();
+        if (fileName == null) {
+            return null;
+        }
+        String name = fileName.toString();
+        for (String encoding : List.of(ContentEncoding.BROTLI, ContentEncoding.GZIP)) {
+            String suffix = ContentEncoding.precompressedSuffix(encoding);
+            if (name.endsWith(suffix) && name.length() > suffix.length()) {
+                return path.resolveSibling(name.substring(0, name.length() - suffix.length()));
+            }
+        }
+        return null;
+    }
+
+    private void evict(Path changed) {
+        Iterator<Map.Entry<Path, CachedResource>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Path, CachedResource> entry = iterator.next();
+            if (entry.getKey().startsWith(changed) || entry.getValue().getSource().startsWith(changed)) {
+                totalBytes -= entry.getValue().getFootprint();
+                iterator.remove();
+            }
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+        totalBytes = 0;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private synchronized void put(Path key, CachedResource resource) {
+        CachedResource previous = entries.put(key, resource);
+        if (previous != null) {
+            totalBytes -= previous.getFootprint();
+        }
+        totalBytes += resource.getFootprint();
+        evictOverflow();
+    }
+
+    private void evictOverflow() {
+        Iterator<Map.Entry<Path, CachedResource>> eldest = entries.entrySet().iterator();
+        while (totalBytes > cacheConfig.maxBytes() && eldest.hasNext()) {
+            Map.Entry<Path, CachedResource> entry = eldest.next();
+            totalBytes -= entry.getValue().getFootprint();
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    private synchronized void remove(Path key) {
+        CachedResource removed = entries.remove(key);
+        if (removed != null) {
+            totalBytes -= removed.getFootprint();
+        }
+    }
+
+    private boolean isUnchanged(CachedResource resource) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(resource.getSource(), BasicFileAttributes.class);
+            if (!attributes.isRegularFile()
+                    || attributes.size() != resource.getLength()
+                    || attributes.lastModifiedTime().toMillis() != resource.getLastModified()) {
+                return false;
+            }
+            for (Map.Entry<String, FileStamp> sibling : resource.getSiblings().entrySet()) {
+                if (!FileStamp.of(sibling(resource.getSource(), sibling.getKey())).equals(sibling.getValue())) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            log.debug("Cached resource for host {} no longer readable: {}", host, e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "StaticResourceCache{host=" + host + ", entries=" + size() + ", bytes=" + getTotalBytes()
+                + ", hits=" + getHits() + ", misses=" + getMisses() + ", evictions=" + getEvictions() + "}";
+    }
+}
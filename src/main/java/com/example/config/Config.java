@@ -11,14 +11,16 @@ import lombok.extern.slf4j.Slf4j;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.Map;
 
 @Slf4j
 @Data
 public class Config {
     private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final List<String> DEFAULT_FORBIDDEN_PATTERNS = List.of(".*\\.exe$", ".*\\.sh$", ".*\\.bat$", ".*\\.cmd$");
 
     @Getter
     private final int port;
@@ -28,7 +30,21 @@ public class Config {
     private final ErrorPages errorPages;
     @Getter
     private final List<ServletConfig> servlets;
-    private List<Pattern> forbiddenPatterns;
+    private final KeepAliveConfig keepAlive;
+    private final ConnectorConfig connector;
+    private final ExecutorConfig executor;
+    private final StaticCacheConfig staticCache;
+    private final PathCacheConfig pathCache;
+    private final CompressionConfig compression;
+    private final RequestConfig request;
+    private final ResponseConfig response;
+    private final AccessLogConfig accessLog;
+    private final AdmissionConfig admission;
+    private final SecurityFilter securityFilter;
+    // 소문자 호스트 이름(또는 "이름:포트") -> VirtualHost
+    private final Map<String, VirtualHost> virtualHosts;
+    private final VirtualHost defaultVirtualHost;
+    private final boolean portSpecificHosts;
 
     @JsonCreator
     public Config(
@@ -37,14 +53,49 @@ public class Config {
             @JsonProperty("hosts") List<HostConfig> hosts,
             @JsonProperty("security") SecurityConfig security,
             @JsonProperty("errorPages") ErrorPages errorPages,
-            @JsonProperty("servlets") List<ServletConfig> servlets) {
+            @JsonProperty("servlets") List<ServletConfig> servlets,
+            @JsonProperty("keepAlive") KeepAliveConfig keepAlive,
+            @JsonProperty("connector") ConnectorConfig connector,
+            @JsonProperty("executor") ExecutorConfig executor,
+            @JsonProperty("staticCache") StaticCacheConfig staticCache,
+            @JsonProperty("pathCache") PathCacheConfig pathCache,
+            @JsonProperty("compression") CompressionConfig compression,
+            @JsonProperty("request") RequestConfig request,
+            @JsonProperty("response") ResponseConfig response,
+            @JsonProperty("accessLog") AccessLogConfig accessLog,
+            @JsonProperty("admission") AdmissionConfig admission) {
         this.port = port;
         this.defaultHost = defaultHost;
         this.hosts = hosts != null ? hosts : new ArrayList<>();
         this.security = security != null ? security : new SecurityConfig(List.of(), List.of(), List.of());
         this.errorPages = errorPages != null ? errorPages : new ErrorPages("error/404.html", "error/403.html", "error/500.html");
         this.servlets = servlets != null ? servlets : new ArrayList<>();
-        initializeForbiddenPatterns();
+        this.keepAlive = keepAlive != null ? keepAlive : new KeepAliveConfig(null, 0, 0);
+        this.connector = connector != null ? connector
+                : new ConnectorConfig(null, 0, 0, 0, null, null, null, 0, 0, 0, 0, 0);
+        this.executor = executor != null ? executor : new ExecutorConfig(null, 0, 0);
+        this.staticCache = staticCache != null ? staticCache : new StaticCacheConfig(null, 0, 0, null);
+        this.pathCache = pathCache != null ? pathCache : new PathCacheConfig(null, 0, null);
+        this.compression = compression != null ? compression : new CompressionConfig(null, 0, null);
+        this.request = request != null ? request : new RequestConfig(0, 0, 0, 0, null);
+        this.response = response != null ? response : new ResponseConfig(0);
+        this.accessLog = accessLog != null ? accessLog : new AccessLogConfig(null, null, 0, null);
+        this.admission = admission != null ? admission : new AdmissionConfig(0, 0, 0);
+        this.securityFilter = SecurityFilter.of(this.security, DEFAULT_FORBIDDEN_PATTERNS);
+
+        Map<String, VirtualHost> virtualHosts = new HashMap<>();
+        for (HostConfig hostConfig : this.hosts) {
+            VirtualHost virtualHost = new VirtualHost(hostConfig, this.errorPages);
+            if (virtualHosts.putIfAbsent(virtualHost.getName().toLowerCase(Locale.ROOT), virtualHost) != null) {
+                log.warn("Duplicate host '{}' is ignored", virtualHost.getName());
+            }
+        }
+        this.virtualHosts = Map.copyOf(virtualHosts);
+        this.portSpecificHosts = virtualHosts.keySet().stream().anyMatch(name -> name.contains(":"));
+        this.defaultVirtualHost = getVirtualHost(defaultHost);
+        if (defaultHost != null && defaultVirtualHost == null) {
+            log.warn("Default host '{}' is not configured; requests for unknown hosts will be rejected", defaultHost);
+        }
 
         log.info("Config loaded with {} servlets", this.servlets.size());
         this.servlets.forEach(servlet ->
@@ -61,68 +112,84 @@ public class Config {
         }
     }
 
-    private void initializeForbiddenPatterns() {
-        List<String> patterns = security.forbiddenPatterns();
-        if (patterns == null || patterns.isEmpty()) {
-            patterns = List.of(".*\\.exe$", ".*\\.sh$", ".*\\.bat$", ".*\\.cmd$");
+    // 호스트 이름은 대소문자를 구분하지 않는다. "이름:포트"로 등록된 호스트가 있으면 포트까지 맞는 쪽이 우선하고,
+    // 어느 호스트와도 맞지 않으면 defaultHost로 보낸다. defaultHost도 없으면 null.
+    public VirtualHost resolveHost(String host, int port) {
+        if (host != null) {
+            String key = host.toLowerCase(Locale.ROOT);
+            VirtualHost virtualHost = portSpecificHosts ? virtualHosts.get(key + ":" + port) : null;
+            if (virtualHost == null) {
+                virtualHost = virtualHosts.get(key);
+            }
+            if (virtualHost != null) {
+                return virtualHost;
+            }
         }
-        
-        forbiddenPatterns = patterns.stream()
-                .map(Pattern::compile)
-                .collect(Collectors.toList());
+        return defaultVirtualHost;
+    }
+
+    // 설정된 이름과 정확히 같은 호스트만 찾는다 (defaultHost로 보내지 않음).
+    public VirtualHost getVirtualHost(String host) {
+        return host != null ? virtualHosts.get(host.toLowerCase(Locale.ROOT)) : null;
     }
 
     public String getDocBase(String host) {
-        return findHostConfig(host)
-                .map(HostConfig::getHttpRoot)
-                .orElse(null);
+        VirtualHost virtualHost = getVirtualHost(host);
+        return virtualHost != null ? virtualHost.getHttpRoot() : null;
     }
 
     public String getWelcomeFile(String host) {
-        return findHostConfig(host)
-                .map(HostConfig::getWelcomeFile)
-                .orElse("index.html");
+        VirtualHost virtualHost = getVirtualHost(host);
+        return virtualHost != null ? virtualHost.getWelcomeFile() : "index.html";
     }
 
     public String getErrorPage(String host, int statusCode) {
-        return findHostConfig(host)
-                .map(HostConfig::getErrorPages)
-                .map(errorPages -> switch (statusCode) {
-                    case 404 -> errorPages.notFound();
-                    case 403 -> errorPages.forbidden();
-                    case 500 -> errorPages.internalError();
-                    default -> null;
-                })
-                .orElse(null);
+        VirtualHost virtualHost = getVirtualHost(host);
+        return virtualHost != null ? virtualHost.getErrorPage(statusCode) : null;
+    }
+
+    public String getCacheControl(String host, String fileName) {
+        VirtualHost virtualHost = getVirtualHost(host);
+        return virtualHost != null ? virtualHost.getCacheControl(fileName) : null;
     }
 
     public boolean isHostConfigured(String host) {
-        return findHostConfig(host).isPresent();
+        return getVirtualHost(host) != null;
     }
 
+    // forbiddenPatterns, forbiddenExtensions, forbiddenPaths 를 한 번에 검사한다.
     public boolean isPathForbidden(String path) {
-        return forbiddenPatterns.stream()
-                .anyMatch(pattern -> pattern.matcher(path).matches());
+        return securityFilter.isForbidden(path);
     }
 
-    private java.util.Optional<HostConfig> findHostConfig(String host) {
-        return hosts.stream()
-                .filter(h -> h.getName().equals(host))
-                .findFirst();
+    // initParameters는 서블릿이 init에서 읽는 설정값
+    public record ServletConfig(String name, String className, List<String> urlPatterns,
+                                Map<String, String> initParameters) {
+        public ServletConfig {
+            initParameters = initParameters != null ? Map.copyOf(initParameters) : Map.of();
+        }
     }
 
-    public record ServletConfig(String name, String className, List<String> urlPatterns) {}
-
+    // servlets는 이 호스트에만 적용되며, 같은 경로면 전역 servlets보다 우선한다.
     public record HostConfig(
             String name,
             String httpRoot,
             String welcomeFile,
-            ErrorPages errorPages
+            ErrorPages errorPages,
+            Map<String, String> cacheControl,
+            List<ServletConfig> servlets
     ) {
+        public HostConfig {
+            cacheControl = cacheControl != null ? Map.copyOf(cacheControl) : Map.of();
+            servlets = servlets != null ? List.copyOf(servlets) : List.of();
+        }
+
         public String getName() { return name; }
         public String getHttpRoot() { return httpRoot; }
         public String getWelcomeFile() { return welcomeFile; }
         public ErrorPages getErrorPages() { return errorPages; }
+        public Map<String, String> getCacheControl() { return cacheControl; }
+        public List<ServletConfig> getServlets() { return servlets; }
     }
 
     public record SecurityConfig(
@@ -137,4 +204,187 @@ public class Config {
         String internalError
     ) {}
 
+    public record KeepAliveConfig(
+        Boolean enabled,
+        int idleTimeoutMillis,
+        int maxRequestsPerConnection
+    ) {
+        public KeepAliveConfig {
+            enabled = enabled == null || enabled;
+            idleTimeoutMillis = idleTimeoutMillis > 0 ? idleTimeoutMillis : 5000;
+            maxRequestsPerConnection = maxRequestsPerConnection > 0 ? maxRequestsPerConnection : 100;
+        }
+    }
+
+    // type: "blocking"(연결당 스레드) 또는 "nio"(Selector 이벤트 루프)
+    // acceptors: 연결을 받는 스레드(NIO면 accept를 맡는 이벤트 루프) 수. reusePort면 acceptor마다 리스닝 소켓을 따로 연다.
+    // 버퍼 크기가 0이면 운영체제 기본값. 시간 제한은 밀리초 단위이다.
+    //   headerTimeoutMillis: 요청의 첫 바이트부터 헤더 끝까지 (넘으면 408)
+    //   bodyTimeoutMillis: 본문을 읽을 때 다음 바이트가 올 때까지
+    //   writeTimeoutMillis: 응답을 쓰는 동안 소켓이 한 번에 막혀 있을 수 있는 시간 (넘으면 연결을 닫는다)
+    public record ConnectorConfig(
+        String type,
+        int eventLoops,
+        int acceptors,
+        int backlog,
+        Boolean reuseAddress,
+        Boolean reusePort,
+        Boolean tcpNoDelay,
+        int sendBufferSize,
+        int receiveBufferSize,
+        int headerTimeoutMillis,
+        int bodyTimeoutMillis,
+        int writeTimeoutMillis
+    ) {
+        public ConnectorConfig {
+            type = type != null ? type.toLowerCase() : "blocking";
+            if (!type.equals("blocking") && !type.equals("nio")) {
+                throw new IllegalArgumentException("Unknown connector type: " + type);
+            }
+            eventLoops = eventLoops > 0 ? eventLoops : Runtime.getRuntime().availableProcessors();
+            acceptors = acceptors > 0 ? acceptors : 1;
+            backlog = backlog > 0 ? backlog : 1024;
+            reuseAddress = reuseAddress == null || reuseAddress;
+            reusePort = reusePort != null && reusePort;
+            tcpNoDelay = tcpNoDelay == null || tcpNoDelay;
+            sendBufferSize = Math.max(0, sendBufferSize);
+            receiveBufferSize = Math.max(0, receiveBufferSize);
+            headerTimeoutMillis = headerTimeoutMillis > 0 ? headerTimeoutMillis : 10000;
+            bodyTimeoutMillis = bodyTimeoutMillis > 0 ? bodyTimeoutMillis : 30000;
+            writeTimeoutMillis = writeTimeoutMillis > 0 ? writeTimeoutMillis : 30000;
+        }
+
+        public boolean isNio() {
+            return type.equals("nio");
+        }
+    }
+
+    // type: "fixed"(고정 크기 스레드 풀) 또는 "virtual"(작업마다 가상 스레드, Java 21 이상)
+    // queueCapacity는 fixed 풀에서 스레드를 기다릴 수 있는 작업 수. 가득 차면 503으로 거절한다.
+    public record ExecutorConfig(
+        String type,
+        int size,
+        int queueCapacity
+    ) {
+        public ExecutorConfig {
+            type = type != null ? type.toLowerCase() : "fixed";
+            if (!type.equals("fixed") && !type.equals("virtual")) {
+                throw new IllegalArgumentException("Unknown executor type: " + type);
+            }
+            size = size > 0 ? size : 10;
+            queueCapacity = queueCapacity > 0 ? queueCapacity : 1000;
+        }
+
+        public boolean isVirtual() {
+            return type.equals("virtual");
+        }
+    }
+
+    // maxBytes는 호스트별 캐시 한도, revalidateMillis는 mtime 재확인 주기(0이면 매 요청)
+    public record StaticCacheConfig(
+        Boolean enabled,
+        long maxBytes,
+        long maxEntryBytes,
+        Long revalidateMillis
+    ) {
+        public StaticCacheConfig {
+            enabled = enabled == null || enabled;
+            maxBytes = maxBytes > 0 ? maxBytes : 64L * 1024 * 1024;
+            maxEntryBytes = maxEntryBytes > 0 ? maxEntryBytes : 1024L * 1024;
+            revalidateMillis = revalidateMillis != null && revalidateMillis >= 0 ? revalidateMillis : 1000L;
+        }
+    }
+
+    // 파일 변경은 감시로 바로 반영되며, revalidateMillis는 감시가 안 될 때를 위한 최대 유지 시간이다.
+    public record PathCacheConfig(
+        Boolean enabled,
+        int maxEntries,
+        Long revalidateMillis
+    ) {
+        public PathCacheConfig {
+            enabled = enabled == null || enabled;
+            maxEntries = maxEntries > 0 ? maxEntries : 10000;
+            revalidateMillis = revalidateMillis != null && revalidateMillis >= 0 ? revalidateMillis : 60000L;
+        }
+    }
+
+    // minBytes보다 작은 본문은 압축하지 않는다.
+    public record CompressionConfig(
+        Boolean enabled,
+        int minBytes,
+        List<String> mimeTypes
+    ) {
+        public CompressionConfig {
+            enabled = enabled == null || enabled;
+            minBytes = minBytes > 0 ? minBytes : 1024;
+            mimeTypes = mimeTypes != null ? List.copyOf(mimeTypes) : List.of(
+                    "text/html", "text/css", "text/plain", "application/javascript",
+                    "application/json", "application/xml", "image/svg+xml");
+        }
+
+        public boolean isCompressible(String contentType, long length) {
+            if (!enabled || contentType == null || length < minBytes) {
+                return false;
+            }
+            int parameterIndex = contentType.indexOf(';');
+            String mimeType = (parameterIndex != -1 ? contentType.substring(0, parameterIndex) : contentType).trim();
+            return mimeTypes.contains(mimeType.toLowerCase());
+        }
+    }
+
+    // 요청 줄 길이, 헤더 전체 크기(요청 줄 포함), 헤더 개수, 본문 크기 한도.
+    // maxDrainBytes는 서블릿이 읽지 않은 본문을 연결 재사용을 위해 버려줄 최대 크기(0이면 버리지 않고 닫는다)
+    public record RequestConfig(
+        int maxRequestLineLength,
+        int maxHeaderSize,
+        int maxHeaderCount,
+        long maxBodySize,
+        Long maxDrainBytes
+    ) {
+        public RequestConfig {
+            maxRequestLineLength = maxRequestLineLength > 0 ? maxRequestLineLength : 8 * 1024;
+            maxHeaderSize = maxHeaderSize > 0 ? maxHeaderSize : 16 * 1024;
+            maxHeaderCount = maxHeaderCount > 0 ? maxHeaderCount : 100;
+            maxBodySize = maxBodySize > 0 ? maxBodySize : 10L * 1024 * 1024;
+            maxDrainBytes = maxDrainBytes != null && maxDrainBytes >= 0 ? maxDrainBytes : 1024L * 1024;
+        }
+    }
+
+    // bufferSize를 넘는 본문은 버퍼링하지 않고 chunked로 보낸다.
+    public record ResponseConfig(
+        int bufferSize
+    ) {
+        public ResponseConfig {
+            bufferSize = bufferSize > 0 ? bufferSize : 8 * 1024;
+        }
+    }
+
+    // bufferSize는 기록을 기다리는 요청 수 (2의 거듭제곱으로 올림), sampleRate는 남길 비율 (0~1, 5xx는 항상 남긴다)
+    public record AccessLogConfig(
+        Boolean enabled,
+        String path,
+        int bufferSize,
+        Double sampleRate
+    ) {
+        public AccessLogConfig {
+            enabled = enabled == null || enabled;
+            path = path != null ? path : "logs/access.log";
+            bufferSize = bufferSize > 0 ? bufferSize : 8192;
+            sampleRate = sampleRate != null && sampleRate >= 0 && sampleRate <= 1 ? sampleRate : 1.0;
+        }
+    }
+
+    // 연결을 받는 시점의 제한. maxConnectionsPerIp가 0이면 클라이언트별 제한을 두지 않는다.
+    public record AdmissionConfig(
+        int maxConnections,
+        int maxConnectionsPerIp,
+        int retryAfterSeconds
+    ) {
+        public AdmissionConfig {
+            maxConnections = maxConnections > 0 ? maxConnections : 10000;
+            maxConnectionsPerIp = Math.max(0, maxConnectionsPerIp);
+            retryAfterSeconds = retryAfterSeconds > 0 ? retryAfterSeconds : 1;
+        }
+    }
+
 }
\ No newline at end of file
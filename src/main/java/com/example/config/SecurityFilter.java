@@ -0,0 +1,265 @@
+package com.example.config;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.regex.Pattern;
+
+// SecurityConfig의 규칙 전체를 시작 시 한 번 컴파일해 둔 금지 경로 검사기.
+// 규칙 수와 상관없이 경로를 앞에서 한 번, 끝에서 확장자 길이만큼 훑는다.
+//  - forbiddenPaths: 경로 접두사 트라이 ("/WEB-INF"는 "/WEB-INF"와 "/WEB-INF/..."를 막는다)
+//  - forbiddenExtensions, ".*\.exe$" 같은 패턴: 경로 끝에서 거꾸로 내려가는 접미사 트라이
+//  - "secret" (전체 일치), "/admin.*", ".*\.\..*" 처럼 문자열만으로 된 패턴: 접두사 트라이와 Aho–Corasick 오토마톤
+//  - 그 밖의 정규식: 하나의 Pattern으로 합쳐서 한 번만 검사
+public class SecurityFilter {
+    private static final int EXACT = 1;
+    private static final int PREFIX = 2;
+    private static final int SEGMENT = 4;
+    private static final int MATCH = 8;
+
+    private final Node prefixRoot = new Node();
+    private final Node suffixRoot = new Node();
+    private final Node containsRoot = new Node();
+    private final boolean hasPrefixes;
+    private final boolean hasSuffixes;
+    private final boolean hasContains;
+    private final Pattern fallback;
+    private final int ruleCount;
+
+    public SecurityFilter(List<String> patterns, List<String> extensions, List<String> paths) {
+        List<String> regexes = new ArrayList<>();
+        int rules = 0;
+        for (String path : nullToEmpty(paths)) {
+            if (path.isEmpty()) {
+                continue;
+            }
+            // 끝의 "/"는 떼어 "/WEB-INF/"와 "/WEB-INF"를 같게 본다.
+            String normalized = path.length() > 1 && path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+            add(prefixRoot, normalized, false).flags |= SEGMENT;
+            rules++;
+        }
+        for (String extension : nullToEmpty(extensions)) {
+            if (extension.isEmpty()) {
+                continue;
+            }
+            add(suffixRoot, extension, true).flags |= MATCH;
+            rules++;
+        }
+        for (String pattern : nullToEmpty(patterns)) {
+            if (!compileLiteral(pattern)) {
+                Pattern.compile(pattern); // 잘못된 정규식은 시작할 때 알린다.
+                regexes.add("(?:" + pattern + ")");
+            }
+            rules++;
+        }
+        buildFailureLinks();
+        this.hasPrefixes = prefixRoot.keys.length > 0;
+        this.hasSuffixes = suffixRoot.keys.length > 0;
+        this.hasContains = containsRoot.keys.length > 0;
+        this.fallback = regexes.isEmpty() ? null : Pattern.compile(String.join("|", regexes));
+        this.ruleCount = rules;
+    }
+
+    public static SecurityFilter of(Config.SecurityConfig security, List<String> defaultPatterns) {
+        List<String> patterns = security.forbiddenPatterns();
+        if (patterns == null || patterns.isEmpty()) {
+            patterns = defaultPatterns;
+        }
+        return new SecurityFilter(patterns, security.forbiddenExtensions(), security.forbiddenPaths());
+    }
+
+    public boolean isForbidden(String path) {
+        if (path == null) {
+            return false;
+        }
+        int length = path.length();
+        Node prefix = hasPrefixes ? prefixRoot : null;
+        Node contains = containsRoot;
+        for (int i = 0; i < length; i++) {
+            char c = path.charAt(i);
+            if (prefix != null) {
+                if (c == '/' && (prefix.flags & SEGMENT) != 0) {
+                    return true;
+                }
+                prefix = prefix.child(c);
+                if (prefix != null && (prefix.flags & PREFIX) != 0) {
+                    return true;
+                }
+            }
+            if (hasContains) {
+                contains = step(contains, c);
+                if ((contains.flags & MATCH) != 0) {
+                    return true;
+                }
+            }
+        }
+        if (prefix != null && (prefix.flags & (EXACT | SEGMENT)) != 0) {
+            return true;
+        }
+        return (hasSuffixes && endsWithSuffix(path)) || (fallback != null && fallback.matcher(path).matches());
+    }
+
+    public int getRuleCount() {
+        return ruleCount;
+    }
+
+    private boolean endsWithSuffix(String path) {
+        Node node = suffixRoot;
+        for (int i = path.length() - 1; i >= 0; i--) {
+            node = node.child(path.charAt(i));
+            if (node == null) {
+                return false;
+            }
+            if ((node.flags & MATCH) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Node step(Node node, char c) {
+        while (true) {
+            Node next = node.child(c);
+            if (next != null) {
+                return next;
+            }
+            if (node == containsRoot) {
+                return node;
+            }
+            node = node.fail;
+        }
+    }
+
+    // 전체 일치(matches) 기준으로 문자열만으로 된 패턴을 트라이에 넣는다. 정규식 기능을 쓰면 false.
+    //   "lit" -> 전체 일치, "lit.*" -> 접두사, ".*lit" -> 접미사, ".*lit.*" -> 포함
+    private boolean compileLiteral(String pattern) {
+        String body = pattern;
+        if (body.startsWith("^")) {
+            body = body.substring(1);
+        }
+        if (body.endsWith("$") && !isEscaped(body, body.length() - 1)) {
+            body = body.substring(0, body.length() - 1);
+        }
+        boolean anyBefore = body.startsWith(".*");
+        if (anyBefore) {
+            body = body.substring(2);
+        }
+        boolean anyAfter = body.endsWith(".*") && !isEscaped(body, body.length() - 2);
+        if (anyAfter) {
+            body = body.substring(0, body.length() - 2);
+        }
+        String literal = unescape(body);
+        if (literal == null || literal.isEmpty()) {
+            return false;
+        }
+        if (anyBefore && anyAfter) {
+            add(containsRoot, literal, false).flags |= MATCH;
+        } else if (anyBefore) {
+            add(suffixRoot, literal, true).flags |= MATCH;
+        } else if (anyAfter) {
+            add(prefixRoot, literal, false).flags |= PREFIX;
+        } else {
+            add(prefixRoot, literal, false).flags |= EXACT;
+        }
+        return true;
+    }
+
+    // 이스케이프를 풀어 그대로 일치해야 하는 문자열을 돌려준다. 메타 문자가 있으면 null.
+    private static String unescape(String regex) {
+        StringBuilder literal = new StringBuilder(regex.length());
+        for (int i = 0; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                if (i + 1 == regex.length() || Character.isLetterOrDigit(regex.charAt(i + 1))) {
+                    return null;
+                }
+                literal.append(regex.charAt(++i));
+            } else if ("[](){}.*+?^$|".indexOf(c) != -1) {
+                return null;
+            } else {
+                literal.append(c);
+            }
+        }
+        return literal.toString();
+    }
+
+    private static boolean isEscaped(String regex, int index) {
+        int backslashes = 0;
+        for (int i = index - 1; i >= 0 && regex.charAt(i) == '\\'; i--) {
+            backslashes++;
+        }
+        return backslashes % 2 == 1;
+    }
+
+    private static Node add(Node root, String key, boolean reverse) {
+        Node node = root;
+        int length = key.length();
+        for (int i = 0; i < length; i++) {
+            node = node.getOrAdd(key.charAt(reverse ? length - 1 - i : i));
+        }
+        return node;
+    }
+
+    // Aho–Corasick 실패 링크. 실패 링크 쪽이 일치하면 그 노드도 일치로 표시해 둔다.
+    private void buildFailureLinks() {
+        Queue<Node> queue = new ArrayDeque<>();
+        containsRoot.fail = containsRoot;
+        for (Node child : containsRoot.children) {
+            child.fail = containsRoot;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            Node node = queue.poll();
+            for (int i = 0; i < node.keys.length; i++) {
+                Node child = node.children[i];
+                Node fail = node.fail;
+                while (fail != containsRoot && fail.child(node.keys[i]) == null) {
+                    fail = fail.fail;
+                }
+                Node target = fail.child(node.keys[i]);
+                child.fail = target != null && target != child ? target : containsRoot;
+                child.flags |= child.fail.flags & MATCH;
+                queue.add(child);
+            }
+        }
+    }
+
+    private static List<String> nullToEmpty(List<String> values) {
+        return values != null ? values : List.of();
+    }
+
+    // 자식은 문자 순으로 정렬해 두고 이진 탐색한다.
+    private static final class Node {
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        private Node fail;
+        private int flags;
+
+        Node child(char c) {
+            int index = Arrays.binarySearch(keys, c);
+            return index >= 0 ? children[index] : null;
+        }
+
+        Node getOrAdd(char c) {
+            int index = Arrays.binarySearch(keys, c);
+            if (index >= 0) {
+                return children[index];
+            }
+            int insert = -index - 1;
+            Node child = new Node();
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, insert);
+            System.arraycopy(children, 0, newChildren, 0, insert);
+            newKeys[insert] = c;
+            newChildren[insert] = child;
+            System.arraycopy(keys, insert, newKeys, insert + 1, keys.length - insert);
+            System.arraycopy(children, insert, newChildren, insert + 1, children.length - insert);
+            keys = newKeys;
+            children = newChildren;
+            return child;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.config;
+
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+// HostConfig를 요청 처리에 바로 쓸 수 있게 미리 계산해 둔 불변 객체.
+// 요청마다 호스트 목록을 훑거나 경로를 다시 만들지 않도록 Config가 시작 시 한 번 만든다.
+@Getter
+public class VirtualHost {
+    private final String name;
+    private final String httpRoot;
+    private final Path docBase;
+    private final String welcomeFile;
+    private final Path welcomeFilePath;
+    private final Config.ErrorPages errorPages;
+    private final Map<String, String> cacheControl;
+    private final List<Config.ServletConfig> servlets;
+
+    VirtualHost(Config.HostConfig hostConfig, Config.ErrorPages defaultErrorPages) {
+        this.name = hostConfig.getName();
+        this.httpRoot = hostConfig.getHttpRoot();
+        this.docBase = Path.of(httpRoot).normalize();
+        this.welcomeFile = hostConfig.getWelcomeFile() != null ? hostConfig.getWelcomeFile() : "index.html";
+        this.welcomeFilePath = docBase.resolve(welcomeFile);
+        this.errorPages = hostConfig.getErrorPages() != null ? hostConfig.getErrorPages() : defaultErrorPages;
+        this.cacheControl = hostConfig.getCacheControl();
+        this.servlets = hostConfig.getServlets();
+    }
+
+    public String getErrorPage(int statusCode) {
+        return switch (statusCode) {
+            case 404 -> errorPages.notFound();
+            case 403 -> errorPages.forbidden();
+            case 500 -> errorPages.internalError();
+            default -> null;
+        };
+    }
+
+    // 확장자(예: ".css")별 값을 먼저 찾고, 없으면 "*" 기본값을 쓴다.
+    public String getCacheControl(String fileName) {
+        int dotIndex = fileName.lastIndexOf('.');
+        String value = dotIndex != -1 ? cacheControl.get(fileName.substring(dotIndex)) : null;
+        return value != null ? value : cacheControl.get("*");
+    }
+
+    @Override
+    public String toString() {
+        return name + " -> " + docBase;
+    }
+}
@@ -1,34 +1,89 @@
 package com.example.exception;
 
 import com.example.config.Config;
+import com.example.config.VirtualHost;
 import com.example.http.HttpStatusError;
 import com.example.http.SimpleHttpResponse;
 import com.example.server.ResponseHandler;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Slf4j
 public class ExceptionHandler {
-    private final Config config;
+    private static final String CONTENT_TYPE = "text/html; charset=UTF-8";
+    private static final int[] ERROR_PAGE_STATUSES = {403, 404, 500};
+    // 기본 에러 페이지는 상태마다 한 번만 만들어 둔다.
+    private static final Map<HttpStatusError, byte[]> DEFAULT_PAGES = createDefaultPages();
+
     private final ResponseHandler responseHandler;
+    // 호스트 이름 -> (상태 코드 -> 에러 페이지 본문). 파일이 바뀌면 그 호스트만 다시 읽는다.
+    private final Map<String, Map<Integer, byte[]>> hostPages = new ConcurrentHashMap<>();
 
     public ExceptionHandler(Config config, ResponseHandler responseHandler) {
-        this.config = config;
         this.responseHandler = responseHandler;
+        for (VirtualHost host : config.getVirtualHosts().values()) {
+            reload(host);
+        }
+    }
+
+    // 호스트 문서 루트(httpRoot) 기준으로 에러 페이지를 읽어 둔다. 없거나 읽을 수 없으면 기본 페이지를 쓴다.
+    public void reload(VirtualHost host) {
+        Map<Integer, byte[]> pages = new HashMap<>();
+        for (int status : ERROR_PAGE_STATUSES) {
+            Path page = errorPagePath(host, status);
+            if (page == null || !Files.isRegularFile(page)) {
+                continue;
+            }
+            try {
+                pages.put(status, Files.readAllBytes(page));
+            } catch (IOException e) {
+                log.warn("Failed to load error page {} for host {}: {}", page, host.getName(), e.getMessage());
+            }
+        }
+        hostPages.put(host.getName(), Map.copyOf(pages));
+    }
+
+    // changed 가 이 호스트의 에러 페이지(또는 그 상위 디렉터리)면 다시 읽는다.
+    public void onFileChanged(VirtualHost host, Path changed) {
+        for (int status : ERROR_PAGE_STATUSES) {
+            Path page = errorPagePath(host, status);
+            if (page != null && page.startsWith(changed)) {
+                reload(host);
+                return;
+            }
+        }
     }
 
-    public void handleException(Exception e, SimpleHttpResponse response, String host) throws IOException {
-        try {
-            HttpStatusError error = determineError(e);
-            sendErrorPage(error, response, host);
-        } catch (IOException ex) {
-            log.error("Error handling exception: {}", ex.getMessage());
-            sendDefaultError(response, HttpStatusError.INTERNAL_SERVER_ERROR);
+    private static Path errorPagePath(VirtualHost host, int status) {
+        String errorPage = host.getErrorPage(status);
+        if (errorPage == null) {
+            return null;
         }
+        Path page = host.getDocBase().resolve(errorPage).normalize();
+        return page.startsWith(host.getDocBase()) ? page : null;
+    }
+
+    public void handleException(Exception e, SimpleHttpResponse response, VirtualHost host) throws IOException {
+        // 서블릿이 버퍼에 일부 써둔 내용이 있으면 버리고 에러 응답으로 교체
+        response.reset();
+        HttpStatusError error = determineError(e);
+        byte[] page = host != null ? hostPages.getOrDefault(host.getName(), Map.of()).get(error.getStatusCode()) : null;
+        if (page == null) {
+            // 요청을 해석하지 못했거나 알 수 없는 호스트면 에러 페이지 없이 기본 응답을 보낸다.
+            page = DEFAULT_PAGES.get(error);
+        } else {
+            log.debug("Sending custom error page for host {}: {}", host.getName(), error.getStatusCode());
+        }
+        response.setStatus(error.getStatusCode(), error.getMessage());
+        responseHandler.sendBytes(response, CONTENT_TYPE, page);
     }
 
     private HttpStatusError determineError(Exception e) {
@@ -38,24 +93,16 @@ public class ExceptionHandler {
         return HttpStatusError.INTERNAL_SERVER_ERROR;
     }
 
-    private void sendErrorPage(HttpStatusError error, SimpleHttpResponse response, String host) throws IOException {
-        String errorPagePath = config.getErrorPage(host, error.getStatusCode());
-        Path errorPage = Paths.get("webapp", "www", host, errorPagePath);
-        
-        if (Files.exists(errorPage)) {
-            log.info("Sending custom error page for host {}: {}", host, errorPage);
-            response.setStatus(error.getStatusCode(), error.getMessage());
-            response.setContentType("text/html");
-            Files.copy(errorPage, response.getOutputStream());
-        } else {
-            sendDefaultError(response, error);
+    private static Map<HttpStatusError, byte[]> createDefaultPages() {
+        Map<HttpStatusError, byte[]> pages = new EnumMap<>(HttpStatusError.class);
+        for (HttpStatusError error : HttpStatusError.values()) {
+            pages.put(error, defaultPage(error).getBytes(StandardCharsets.UTF_8));
         }
+        return pages;
     }
 
-    private void sendDefaultError(SimpleHttpResponse response, HttpStatusError error) throws IOException {
-        response.setStatus(error.getStatusCode(), error.getMessage());
-        response.setContentType("text/html");
-        String html = """
+    private static String defaultPage(HttpStatusError error) {
+        return """
             <!DOCTYPE html>
             <html>
             <head>
@@ -80,6 +127,5 @@ public class ExceptionHandler {
                 error.getMessage(),
                 error.getMessage()
             );
-        response.getWriter().write(html);
     }
-}
\ No newline at end of file
+}
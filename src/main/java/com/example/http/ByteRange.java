@@ -0,0 +1,99 @@
+package com.example.http;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+// Range: bytes=... 헤더의 구간 하나. start, end 모두 포함 범위다.
+public record ByteRange(long start, long end) {
+    private static final int MAX_RANGES = 16;
+
+    public long length() {
+        return end - start + 1;
+    }
+
+    public String toContentRange(long totalLength) {
+        return "bytes " + start + "-" + end + "/" + totalLength;
+    }
+
+    // 문법이 잘못되었거나 지원하지 않는 단위면 null (Range를 무시하고 전체 응답),
+    // 만족하는 구간이 하나도 없으면 빈 목록 (416)을 돌려준다.
+    public static List<ByteRange> parse(String header, long totalLength) {
+        if (header == null || !header.regionMatches(true, 0, "bytes=", 0, 6)) {
+            return null;
+        }
+        String[] specs = header.substring(6).split(",");
+        if (specs.length > MAX_RANGES) {
+            return null;
+        }
+
+        List<ByteRange> ranges = new ArrayList<>();
+        try {
+            for (String rawSpec : specs) {
+                String spec = rawSpec.trim();
+                int dashIndex = spec.indexOf('-');
+                if (dashIndex == -1) {
+                    return null;
+                }
+                String first = spec.substring(0, dashIndex).trim();
+                String last = spec.substring(dashIndex + 1).trim();
+
+                if (first.isEmpty()) {
+                    // bytes=-500: 마지막 500바이트
+                    long suffixLength = parsePosition(last);
+                    if (suffixLength > 0 && totalLength > 0) {
+                        ranges.add(new ByteRange(Math.max(0, totalLength - suffixLength), totalLength - 1));
+                    }
+                    continue;
+                }
+
+                long start = parsePosition(first);
+                long end = last.isEmpty() ? Long.MAX_VALUE : parsePosition(last);
+                if (start < 0 || end < start) {
+                    return null;
+                }
+                if (start < totalLength) {
+                    ranges.add(new ByteRange(start, Math.min(end, totalLength - 1)));
+                }
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        return coalesce(ranges);
+    }
+
+    // Long.parseLong은 +5 같은 부호를 받아들이므로 숫자만 허용한다.
+    private static long parsePosition(String value) {
+        if (value.isEmpty()) {
+            throw new NumberFormatException("Empty range position");
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new NumberFormatException("Invalid range position: " + value);
+            }
+        }
+        return Long.parseLong(value);
+    }
+
+    // 겹치거나 맞닿은 구간은 합친다. bytes=0-,0-,... 처럼 같은 바이트를 여러 번 보내게 하는 요청을 막는다.
+    private static List<ByteRange> coalesce(List<ByteRange> ranges) {
+        if (ranges.size() < 2) {
+            return ranges;
+        }
+        ranges.sort(Comparator.comparingLong(ByteRange::start));
+        List<ByteRange> merged = new ArrayList<>(ranges.size());
+        ByteRange current = ranges.get(0);
+        for (int i = 1; i < ranges.size(); i++) {
+            ByteRange next = ranges.get(i);
+            if (next.start() <= current.end() + 1) {
+                current = new ByteRange(current.start(), Math.max(current.end(), next.end()));
+            } else {
+                merged.add(current);
+                current = next;
+            }
+        }
+        merged.add(current);
+        return merged;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.http;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+// Transfer-Encoding: chunked 본문을 쓴다. write 한 번이 청크 하나가 되며,
+// finish()는 마지막 청크를 쓰고 아래 스트림은 닫지 않는다.
+class ChunkedOutputStream extends OutputStream {
+    private static final byte[] CRLF = {'\r', '\n'};
+    private static final byte[] LAST_CHUNK = "0\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final OutputStream out;
+    private final byte[] sizeLine = new byte[18];
+    private boolean finished;
+
+    ChunkedOutputStream(OutputStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (finished) {
+            throw new IOException("Chunked body already finished");
+        }
+        // 길이 0 청크는 본문의 끝을 뜻하므로 쓰지 않는다.
+        if (len == 0) {
+            return;
+        }
+        out.write(sizeLine, 0, encodeSize(len));
+        out.write(b, off, len);
+        out.write(CRLF);
+    }
+
+    // 16진수 길이와 CRLF
+    private int encodeSize(int size) {
+        int digits = Math.max(1, (Integer.SIZE - Integer.numberOfLeadingZeros(size) + 3) / 4);
+        for (int i = digits - 1; i >= 0; i--) {
+            sizeLine[i] = (byte) Character.forDigit(size & 0xF, 16);
+            size >>>= 4;
+        }
+        sizeLine[digits] = '\r';
+        sizeLine[digits + 1] = '\n';
+        return digits + 2;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    public void finish() throws IOException {
+        if (!finished) {
+            finished = true;
+            out.write(LAST_CHUNK);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.http;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+public final class ContentEncoding {
+    public static final String BROTLI = "br";
+    public static final String GZIP = "gzip";
+    public static final String DEFLATE = "deflate";
+
+    // 서버가 고를 때의 선호 순서
+    private static final List<String> PREFERENCE = List.of(BROTLI, GZIP, DEFLATE);
+    // 실행 중에 직접 압축할 수 있는 코딩 (br은 미리 압축된 파일만 제공)
+    public static final List<String> ON_THE_FLY = List.of(GZIP, DEFLATE);
+
+    private ContentEncoding() {
+    }
+
+    // Accept-Encoding에서 q > 0인 코딩 중 available에 있는 것을 선호 순서대로 고른다. 없으면 null(identity).
+    public static String negotiate(String acceptEncoding, Collection<String> available) {
+        if (acceptEncoding == null || available.isEmpty()) {
+            return null;
+        }
+        Set<String> accepted = new HashSet<>();
+        Set<String> rejected = new HashSet<>();
+        boolean wildcard = false;
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.split(";");
+            String coding = tokens[0].trim().toLowerCase(Locale.ROOT);
+            if (qualityOf(tokens) <= 0) {
+                rejected.add(coding);
+            } else if (coding.equals("*")) {
+                wildcard = true;
+            } else {
+                accepted.add(coding);
+            }
+        }
+
+        for (String coding : PREFERENCE) {
+            if (available.contains(coding) && !rejected.contains(coding)
+                    && (accepted.contains(coding) || wildcard)) {
+                return coding;
+            }
+        }
+        return null;
+    }
+
+    private static double qualityOf(String[] tokens) {
+        for (int i = 1; i < tokens.length; i++) {
+            String parameter = tokens[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    public static byte[] compress(byte[] content, String encoding) throws IOException {
+        return compress(content, 0, content.length, encoding);
+    }
+
+    public static byte[] compress(byte[] content, int offset, int length, String encoding) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, length / 3));
+        try (OutputStream compressor = GZIP.equals(encoding)
+                ? new GZIPOutputStream(out)
+                : new DeflaterOutputStream(out)) {
+            compressor.write(content, offset, length);
+        }
+        return out.toByteArray();
+    }
+
+    // 길이를 모르는 스트리밍 응답용. flush() 때마다 지금까지의 압축 결과를 내보낸다.
+    public static DeflaterOutputStream compressor(OutputStream out, String encoding) throws IOException {
+        return GZIP.equals(encoding)
+                ? new GZIPOutputStream(out, true)
+                : new DeflaterOutputStream(out, true);
+    }
+
+    // 인코딩된 표현은 별도의 ETag를 가져야 한다.
+    public static String tagEtag(String etag, String encoding) {
+        return etag.substring(0, etag.length() - 1) + "-" + encoding + "\"";
+    }
+
+    // 미리 압축된 형제 파일의 확장자
+    public static String precompressedSuffix(String encoding) {
+        return BROTLI.equals(encoding) ? ".br" : ".gz";
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.http;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// 응답마다 날짜를 포맷하지 않도록 "Date: ...\r\n" 바이트를 만들어 두고,
+// 백그라운드 스레드가 매 초 경계마다 새로 만든다.
+final class DateHeader {
+    private static volatile byte[] current = encode(System.currentTimeMillis());
+
+    static {
+        ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "http-date-ticker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long untilNextSecond = 1000 - System.currentTimeMillis() % 1000;
+        ticker.scheduleAtFixedRate(() -> current = encode(System.currentTimeMillis()),
+                untilNextSecond, 1000, TimeUnit.MILLISECONDS);
+    }
+
+    private DateHeader() {
+    }
+
+    // 반환한 배열은 공유되므로 수정하면 안 된다.
+    static byte[] current() {
+        return current;
+    }
+
+    private static byte[] encode(long now) {
+        return ("Date: " + HttpDate.format(now) + "\r\n").getBytes(StandardCharsets.US_ASCII);
+    }
+}
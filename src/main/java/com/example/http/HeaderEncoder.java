@@ -0,0 +1,163 @@
+package com.example.http;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// 응답 헤더를 문자열을 거치지 않고 바이트 버퍼에 바로 쓴다.
+// 상태 줄과 자주 쓰는 헤더는 미리 인코딩한 상수를 복사하며, 버퍼는 스레드마다 하나를 재사용한다.
+final class HeaderEncoder {
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final byte[] CRLF = {'\r', '\n'};
+    private static final byte[] SEPARATOR = {':', ' '};
+
+    static final byte[] CONTENT_TYPE = ascii("Content-Type: ");
+    static final byte[] CONTENT_LENGTH = ascii("Content-Length: ");
+    static final byte[] TRANSFER_ENCODING_CHUNKED = ascii("Transfer-Encoding: chunked\r\n");
+    static final byte[] CONNECTION_KEEP_ALIVE = ascii("Connection: keep-alive\r\n");
+    static final byte[] CONNECTION_CLOSE = ascii("Connection: close\r\n");
+
+    // 표준 사유 문구로 보내는 상태 줄은 미리 만들어 둔다.
+    private static final String[] REASONS = new String[600];
+    private static final byte[][] STATUS_LINES = new byte[600][];
+
+    static {
+        reason(100, "Continue");
+        reason(200, "OK");
+        reason(201, "Created");
+        reason(204, "No Content");
+        reason(206, "Partial Content");
+        reason(301, "Moved Permanently");
+        reason(302, "Found");
+        reason(304, "Not Modified");
+        for (HttpStatusError error : HttpStatusError.values()) {
+            reason(error.getStatusCode(), error.getMessage());
+        }
+        reason(416, "Range Not Satisfiable");
+    }
+
+    private static final ThreadLocal<HeaderEncoder> POOL = ThreadLocal.withInitial(HeaderEncoder::new);
+
+    private byte[] buffer = new byte[INITIAL_CAPACITY];
+    private int size;
+
+    private HeaderEncoder() {
+    }
+
+    // 현재 스레드의 인코더를 비워서 돌려준다. 같은 스레드에서 writeTo()까지 끝내고 다시 acquire 해야 한다.
+    static HeaderEncoder acquire() {
+        HeaderEncoder encoder = POOL.get();
+        encoder.size = 0;
+        return encoder;
+    }
+
+    void statusLine(int statusCode, String statusMessage) {
+        if (statusCode >= 0 && statusCode < STATUS_LINES.length
+                && STATUS_LINES[statusCode] != null && REASONS[statusCode].equals(statusMessage)) {
+            write(STATUS_LINES[statusCode]);
+            return;
+        }
+        write(ascii("HTTP/1.1 "));
+        writeLong(statusCode);
+        write((byte) ' ');
+        writeText(statusMessage != null ? statusMessage : "");
+        write(CRLF);
+    }
+
+    // name은 "Content-Type: "처럼 구분자까지 포함한 상수
+    void header(byte[] name, String value) {
+        write(name);
+        writeText(value);
+        write(CRLF);
+    }
+
+    void header(byte[] name, long value) {
+        write(name);
+        writeLong(value);
+        write(CRLF);
+    }
+
+    void header(String name, String value) {
+        writeText(name);
+        write(SEPARATOR);
+        writeText(value);
+        write(CRLF);
+    }
+
+    // 이름과 값, 줄 끝까지 모두 들어 있는 상수
+    void line(byte[] line) {
+        write(line);
+    }
+
+    void end() {
+        write(CRLF);
+    }
+
+    void writeTo(OutputStream out) throws IOException {
+        out.write(buffer, 0, size);
+    }
+
+    int size() {
+        return size;
+    }
+
+    // 헤더 값은 대부분 ASCII이므로 문자 단위로 바로 쓰고, 그 밖의 문자가 있을 때만 UTF-8로 인코딩한다.
+    private void writeText(String text) {
+        int length = text.length();
+        ensureCapacity(length);
+        int start = size;
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c >= 0x80) {
+                size = start;
+                write(text.getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            buffer[size++] = (byte) c;
+        }
+    }
+
+    private void writeLong(long value) {
+        if (value < 0) {
+            write((byte) '-');
+            value = -value;
+        }
+        ensureCapacity(20);
+        int digits = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        for (int i = size + digits - 1; i >= size; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        size += digits;
+    }
+
+    private void write(byte b) {
+        ensureCapacity(1);
+        buffer[size++] = b;
+    }
+
+    private void write(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, size, bytes.length);
+        size += bytes.length;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (size + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+        }
+    }
+
+    private static void reason(int statusCode, String reason) {
+        REASONS[statusCode] = reason;
+        STATUS_LINES[statusCode] = ascii("HTTP/1.1 " + statusCode + " " + reason + "\r\n");
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
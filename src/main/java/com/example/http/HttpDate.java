@@ -0,0 +1,33 @@
+package com.example.http;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+
+// RFC 9110 IMF-fixdate 형식 (예: Sun, 06 Nov 1994 08:49:37 GMT)
+public final class HttpDate {
+    private static final DateTimeFormatter FORMATTER =
+        DateTimeFormatter.ofPattern("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.US).withZone(ZoneOffset.UTC);
+
+    private HttpDate() {
+    }
+
+    public static String format(long epochMillis) {
+        return FORMATTER.format(Instant.ofEpochMilli(epochMillis));
+    }
+
+    // 해석할 수 없으면 -1
+    public static long parse(String value) {
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.http;
+
+import com.example.config.Config;
+import com.example.exception.WebServerException;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+// 요청 줄과 헤더를 바이트 단위로 파싱한다.
+// 데이터가 나눠서 도착해도 이전에 훑은 위치부터 이어서 파싱하며, 문자열은 만들지 않고 위치만 기록한다.
+// 모든 위치는 버퍼의 position(요청 시작) 기준이므로, 파싱 도중 버퍼를 compact 하거나 키워도 된다.
+public class HttpRequestParser {
+    private static final int REQUEST_LINE = 0;
+    private static final int HEADERS = 1;
+    private static final int COMPLETE = 2;
+    private static final String HTTP_1_0 = "HTTP/1.0";
+    private static final String HTTP_1_1 = "HTTP/1.1";
+
+    private final int maxRequestLineLength;
+    private final int maxHeaderSize;
+    private final int maxHeaderCount;
+
+    private int state = REQUEST_LINE;
+    private int scan;
+    private int lineStart;
+    private int headEnd;
+    // 요청 줄: method 끝, target 시작/끝, version 시작/끝
+    private final int[] requestLine = new int[5];
+    // 헤더마다 이름 시작/끝, 값 시작/끝
+    private int[] fields = new int[4 * 16];
+    private int headerCount;
+    private WebServerException error;
+
+    public HttpRequestParser(Config.RequestConfig limits) {
+        this.maxRequestLineLength = limits.maxRequestLineLength();
+        this.maxHeaderSize = limits.maxHeaderSize();
+        this.maxHeaderCount = limits.maxHeaderCount();
+    }
+
+    // 버퍼의 [position, limit) 를 읽어 헤더 끝(빈 줄)까지 도착했으면 true.
+    // 버퍼는 소비하지 않는다. 한도를 넘거나 형식이 잘못되면 같은 예외를 계속 던진다.
+    public boolean parse(ByteBuffer buffer) {
+        if (error != null) {
+            throw error;
+        }
+        if (state == COMPLETE) {
+            return true;
+        }
+        try {
+            return scan(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        } catch (WebServerException e) {
+            error = e;
+            throw e;
+        }
+    }
+
+    private boolean scan(byte[] bytes, int base, int available) {
+        while (scan < available) {
+            if (bytes[base + scan] != '\n') {
+                scan++;
+                checkLimits();
+                continue;
+            }
+            int lineEnd = scan;
+            if (lineEnd > lineStart && bytes[base + lineEnd - 1] == '\r') {
+                lineEnd--;
+            }
+            scan++;
+            if (state == REQUEST_LINE) {
+                // 요청 사이의 빈 줄은 무시
+                if (lineEnd > lineStart) {
+                    parseRequestLine(bytes, base, lineStart, lineEnd);
+                    state = HEADERS;
+                }
+            } else if (lineEnd == lineStart) {
+                headEnd = scan;
+                state = COMPLETE;
+                return true;
+            } else {
+                parseHeaderLine(bytes, base, lineStart, lineEnd);
+            }
+            lineStart = scan;
+        }
+        return false;
+    }
+
+    private void checkLimits() {
+        if (state == REQUEST_LINE && scan - lineStart > maxRequestLineLength) {
+            throw new WebServerException(414, "Request line exceeds " + maxRequestLineLength + " bytes");
+        }
+        if (scan > maxHeaderSize) {
+            throw new WebServerException(431, "Request header exceeds " + maxHeaderSize + " bytes");
+        }
+    }
+
+    private void parseRequestLine(byte[] bytes, int base, int start, int end) {
+        int methodEnd = indexOf(bytes, base, start, end, (byte) ' ');
+        int versionStart = lastIndexOf(bytes, base, start, end, (byte) ' ') + 1;
+        // 공백은 정확히 두 개: 대상에 공백이 섞인 요청은 프록시와 다르게 나뉠 수 있다.
+        if (methodEnd <= start || versionStart <= methodEnd + 2 || versionStart >= end
+                || indexOf(bytes, base, methodEnd + 1, versionStart - 1, (byte) ' ') != -1
+                || !startsWith(bytes, base + versionStart, end - versionStart, "HTTP/")) {
+            throw new WebServerException(400, "Invalid request line format");
+        }
+        int versionLength = end - versionStart;
+        if (versionLength != HTTP_1_1.length()
+                || (!startsWith(bytes, base + versionStart, versionLength, HTTP_1_1)
+                && !startsWith(bytes, base + versionStart, versionLength, HTTP_1_0))) {
+            throw new WebServerException(505, "Unsupported HTTP version");
+        }
+        requestLine[0] = methodEnd;
+        requestLine[1] = methodEnd + 1;
+        requestLine[2] = versionStart - 1;
+        requestLine[3] = versionStart;
+        requestLine[4] = end;
+    }
+
+    private void parseHeaderLine(byte[] bytes, int base, int start, int end) {
+        if (headerCount >= maxHeaderCount) {
+            throw new WebServerException(431, "Too many request headers (max " + maxHeaderCount + ")");
+        }
+        int colon = indexOf(bytes, base, start, end, (byte) ':');
+        // 이름이 비었거나 이름 뒤 공백, 줄 접기(obs-fold)는 허용하지 않는다.
+        if (colon <= start || isWhitespace(bytes[base + colon - 1]) || isWhitespace(bytes[base + start])) {
+            throw new WebServerException(400, "Invalid header line");
+        }
+        int valueStart = colon + 1;
+        int valueEnd = end;
+        while (valueStart < valueEnd && isWhitespace(bytes[base + valueStart])) {
+            valueStart++;
+        }
+        while (valueEnd > valueStart && isWhitespace(bytes[base + valueEnd - 1])) {
+            valueEnd--;
+        }
+        if (fields.length < (headerCount + 1) * 4) {
+            fields = Arrays.copyOf(fields, fields.length * 2);
+        }
+        int offset = headerCount * 4;
+        fields[offset] = start;
+        fields[offset + 1] = colon;
+        fields[offset + 2] = valueStart;
+        fields[offset + 3] = valueEnd;
+        headerCount++;
+    }
+
+    // 완성된 요청 헤더를 꺼내고 버퍼의 position을 본문(또는 다음 요청) 시작으로 옮긴다.
+    public SimpleHttpRequest take(ByteBuffer buffer) {
+        if (state != COMPLETE) {
+            throw new IllegalStateException("Request header is not complete");
+        }
+        byte[] head = new byte[headEnd];
+        buffer.get(head);
+        SimpleHttpRequest request = new SimpleHttpRequest(
+                head, requestLine.clone(), Arrays.copyOf(fields, headerCount * 4), headerCount);
+        reset();
+        return request;
+    }
+
+    // 요청 헤더를 일부라도 받은 상태인지 (요청 사이의 빈 줄만 받았다면 false)
+    public boolean isStarted() {
+        return state != REQUEST_LINE || scan > lineStart;
+    }
+
+    private void reset() {
+        state = REQUEST_LINE;
+        scan = 0;
+        lineStart = 0;
+        headEnd = 0;
+        headerCount = 0;
+    }
+
+    private static int indexOf(byte[] bytes, int base, int from, int to, byte target) {
+        for (int i = from; i < to; i++) {
+            if (bytes[base + i] == target) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int lastIndexOf(byte[] bytes, int base, int from, int to, byte target) {
+        for (int i = to - 1; i >= from; i--) {
+            if (bytes[base + i] == target) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean startsWith(byte[] bytes, int offset, int length, String prefix) {
+        if (length < prefix.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (bytes[offset + i] != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t';
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.http;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+// 요청 본문 스트림. Content-Length 만큼만 읽거나 chunked 인코딩을 풀어서 돌려주며,
+// 본문 전체를 메모리에 모으지 않는다. 바이트는 연결의 RequestReader에서 가져온다.
+public class RequestBody extends InputStream {
+    private static final byte[] CONTINUE = "HTTP/1.1 100 Continue\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+    private static final int MAX_CHUNK_LINE_LENGTH = 1024;
+    private static final int MAX_CHUNK_SIZE_DIGITS = 16;
+
+    private final RequestReader reader;
+    private final boolean chunked;
+    private final long maxBodySize;
+    private final int maxTrailerCount;
+    // 현재 청크(또는 Content-Length 본문)에서 남은 바이트
+    private long remaining;
+    private long received;
+    private boolean finished;
+    private IOException error;
+    // Expect: 100-continue 요청이면 처음 읽을 때 중간 응답을 보낸다.
+    private OutputStream continueOut;
+    private final byte[] single = new byte[1];
+
+    RequestBody(RequestReader reader, long contentLength, boolean chunked, long maxBodySize, int maxTrailerCount) {
+        this.reader = reader;
+        this.chunked = chunked;
+        this.maxBodySize = maxBodySize;
+        this.maxTrailerCount = maxTrailerCount;
+        this.remaining = chunked ? 0 : contentLength;
+        this.finished = !chunked && contentLength == 0;
+    }
+
+    static RequestBody empty() {
+        return new RequestBody(null, 0, false, 0, 0);
+    }
+
+    public void expectContinue(OutputStream out) {
+        this.continueOut = finished ? null : out;
+    }
+
+    // 클라이언트가 100 Continue를 기다리는 중인지 (본문을 아직 보내지 않았을 수 있다)
+    public boolean isAwaitingContinue() {
+        return continueOut != null;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int n = read(single, 0, 1);
+        return n < 0 ? -1 : single[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (error != null) {
+            throw error;
+        }
+        if (len == 0) {
+            return 0;
+        }
+        try {
+            return readBody(b, off, len);
+        } catch (IOException e) {
+            error = e;
+            throw e;
+        }
+    }
+
+    private int readBody(byte[] b, int off, int len) throws IOException {
+        if (finished) {
+            return -1;
+        }
+        sendContinue();
+        if (remaining == 0 && !nextChunk()) {
+            return -1;
+        }
+        int n = reader.read(b, off, (int) Math.min(len, remaining));
+        if (n < 0) {
+            throw new EOFException("Connection closed before request body was complete");
+        }
+        remaining -= n;
+        if (remaining == 0) {
+            if (chunked) {
+                readChunkEnd();
+            } else {
+                finished = true;
+            }
+        }
+        return n;
+    }
+
+    // 다음 청크 크기를 읽는다. 마지막 청크(0)면 트레일러까지 읽고 false.
+    private boolean nextChunk() throws IOException {
+        String line = reader.readLine(MAX_CHUNK_LINE_LENGTH);
+        int extension = line.indexOf(';');
+        long chunkSize = parseChunkSize(extension != -1 ? line.substring(0, extension) : line);
+        if (chunkSize == 0) {
+            // 트레일러 헤더는 버린다.
+            int trailers = 0;
+            while (!reader.readLine(MAX_CHUNK_LINE_LENGTH).isEmpty()) {
+                if (++trailers > maxTrailerCount) {
+                    throw new IOException("Too many chunk trailer fields (max " + maxTrailerCount + ")");
+                }
+            }
+            finished = true;
+            return false;
+        }
+        if (received + chunkSize > maxBodySize) {
+            throw new PayloadTooLargeException(maxBodySize);
+        }
+        received += chunkSize;
+        remaining = chunkSize;
+        return true;
+    }
+
+    // 청크 크기는 16진수 숫자만 허용한다. 부호, 공백, 0x 접두사는 프록시마다 다르게 해석하므로 거부한다.
+    private static long parseChunkSize(String size) throws IOException {
+        if (size.isEmpty() || size.length() > MAX_CHUNK_SIZE_DIGITS) {
+            throw new MalformedChunkException("Invalid chunk size: " + size);
+        }
+        for (int i = 0; i < size.length(); i++) {
+            if (Character.digit(size.charAt(i), 16) < 0) {
+                throw new MalformedChunkException("Invalid chunk size: " + size);
+            }
+        }
+        try {
+            return Long.parseLong(size, 16);
+        } catch (NumberFormatException e) {
+            throw new MalformedChunkException("Invalid chunk size: " + size);
+        }
+    }
+
+    private void readChunkEnd() throws IOException {
+        if (!reader.readLine(2).isEmpty()) {
+            throw new MalformedChunkException("Missing CRLF after chunk data");
+        }
+    }
+
+    private void sendContinue() throws IOException {
+        if (continueOut != null) {
+            OutputStream out = continueOut;
+            continueOut = null;
+            out.write(CONTINUE);
+            out.flush();
+        }
+    }
+
+    // 읽지 않고 남은 본문을 limit 바이트까지 버린다. 끝까지 버렸으면 true.
+    // 100 Continue를 보내지 않았다면 클라이언트가 본문을 보내지 않을 수 있으므로 false.
+    public boolean drain(long limit) {
+        if (finished) {
+            return true;
+        }
+        if (error != null || continueOut != null) {
+            return false;
+        }
+        byte[] scratch = new byte[(int) Math.min(8192, Math.max(limit, 1))];
+        long drained = 0;
+        try {
+            while (drained < limit) {
+                int n = read(scratch, 0, (int) Math.min(scratch.length, limit - drained));
+                if (n < 0) {
+                    return true;
+                }
+                drained += n;
+            }
+            return finished;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public int available() {
+        return finished ? 0 : (int) Math.min(remaining, reader.buffered());
+    }
+
+    // 서블릿이 닫아도 연결은 닫지 않는다. 남은 본문은 요청 처리 후 버려진다.
+    @Override
+    public void close() {
+    }
+
+    // chunked 본문이 읽는 도중 한도를 넘으면 던진다. 서블릿 밖으로 나오면 413으로 응답한다.
+    public static class PayloadTooLargeException extends IOException {
+        PayloadTooLargeException(long maxBodySize) {
+            super("Request body exceeds " + maxBodySize + " bytes");
+        }
+    }
+
+    // chunked 인코딩의 틀이 잘못됐을 때 던진다. 서블릿 밖으로 나오면 400으로 응답한다.
+    public static class MalformedChunkException extends IOException {
+        MalformedChunkException(String message) {
+            super(message);
+        }
+    }
+}
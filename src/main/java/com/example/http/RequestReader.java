@@ -0,0 +1,262 @@
+package com.example.http;
+
+import com.example.config.Config;
+import com.example.exception.WebServerException;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.List;
+
+// 연결마다 하나씩 두는 요청 수신 버퍼.
+// 버퍼는 항상 읽기 모드이며 [position, limit) 가 아직 처리하지 않은 바이트다.
+// 파이프라이닝으로 미리 받은 다음 요청 바이트는 버퍼에 남아 다음 파싱에 쓰인다.
+public class RequestReader {
+    private static final int INITIAL_BUFFER_SIZE = 8 * 1024;
+
+    private final InputStream source;
+    private final HttpRequestParser parser;
+    private final int maxBufferSize;
+    private final long maxBodySize;
+    private final int maxTrailerCount;
+    private ByteBuffer buffer;
+    private ReadTimeout readTimeout;
+    private int idleTimeoutMillis;
+    private int headerTimeoutMillis;
+    private int bodyTimeoutMillis;
+    private int currentTimeoutMillis = -1;
+
+    // 블로킹 읽기 한 번에 걸 시간 제한을 바꾼다 (소켓이면 SO_TIMEOUT).
+    @FunctionalInterface
+    public interface ReadTimeout {
+        void set(int millis) throws IOException;
+    }
+
+    // source는 블로킹 읽기에만 쓰인다.
+    public RequestReader(InputStream source, Config.RequestConfig limits) {
+        this.source = source;
+        this.parser = new HttpRequestParser(limits);
+        // 헤더 한도를 넘는 순간 파서가 431을 던지므로 그보다 조금만 크면 된다.
+        this.maxBufferSize = Math.max(INITIAL_BUFFER_SIZE, limits.maxHeaderSize() + 1);
+        this.maxBodySize = limits.maxBodySize();
+        // 청크 트레일러도 요청 헤더와 같은 개수 제한을 받는다.
+        this.maxTrailerCount = limits.maxHeaderCount();
+        this.buffer = ByteBuffer.allocate(Math.min(INITIAL_BUFFER_SIZE, maxBufferSize));
+        this.buffer.limit(0);
+    }
+
+    // 다음 요청을 기다리는 동안은 idle, 요청의 첫 바이트를 받은 뒤로는 헤더 끝까지 합쳐서 header,
+    // 헤더를 다 읽은 뒤 본문을 읽을 때는 읽기 한 번마다 body 만큼 기다린다.
+    public void setTimeouts(ReadTimeout readTimeout, int idleTimeoutMillis, int headerTimeoutMillis,
+                            int bodyTimeoutMillis) {
+        this.readTimeout = readTimeout;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.headerTimeoutMillis = headerTimeoutMillis;
+        this.bodyTimeoutMillis = bodyTimeoutMillis;
+    }
+
+    // 블로킹: 요청 헤더가 완성될 때까지 읽는다. 요청을 시작하기 전에 연결이 닫히면 null.
+    // 요청을 시작하기 전의 읽기 시간 초과는 SocketTimeoutException, 헤더를 받는 도중이면 408이다.
+    public SimpleHttpRequest readRequest() throws IOException {
+        long deadline = 0;
+        while (!parser.parse(buffer)) {
+            if (readTimeout != null) {
+                if (parser.isStarted()) {
+                    long now = System.nanoTime();
+                    if (deadline == 0) {
+                        deadline = now + headerTimeoutMillis * 1_000_000L;
+                    }
+                    long remaining = (deadline - now) / 1_000_000L;
+                    if (remaining <= 0) {
+                        throw headerTimeout();
+                    }
+                    setReadTimeout((int) remaining);
+                } else {
+                    setReadTimeout(idleTimeoutMillis);
+                }
+            }
+            int n;
+            try {
+                n = fill();
+            } catch (SocketTimeoutException e) {
+                if (parser.isStarted()) {
+                    throw headerTimeout();
+                }
+                throw e;
+            }
+            if (n < 0) {
+                if (parser.isStarted()) {
+                    throw new EOFException("Connection closed in the middle of a request header");
+                }
+                return null;
+            }
+        }
+        SimpleHttpRequest request = parser.take(buffer);
+        request.setBody(createBody(request));
+        if (readTimeout != null) {
+            setReadTimeout(bodyTimeoutMillis);
+        }
+        return request;
+    }
+
+    private WebServerException headerTimeout() {
+        return new WebServerException(408, "Request header not received within " + headerTimeoutMillis + " ms");
+    }
+
+    private void setReadTimeout(int millis) throws IOException {
+        if (millis != currentTimeoutMillis) {
+            readTimeout.set(millis);
+            currentTimeoutMillis = millis;
+        }
+    }
+
+    // Transfer-Encoding이 있으면 Content-Length보다 우선한다. 둘 다 오면 요청 후 연결을 닫는다
+    // (SimpleHttpRequest.isKeepAlive). 값이 여러 개인 Content-Length는 본문 경계가 모호하므로 받지 않는다.
+    private RequestBody createBody(SimpleHttpRequest request) {
+        List<String> transferEncodings = request.getHeaderValues("Transfer-Encoding");
+        if (!transferEncodings.isEmpty()) {
+            String transferEncoding = String.join(", ", transferEncodings);
+            if (!transferEncoding.equalsIgnoreCase("chunked")) {
+                throw new WebServerException(501, "Unsupported Transfer-Encoding: " + transferEncoding);
+            }
+            return new RequestBody(this, 0, true, maxBodySize, maxTrailerCount);
+        }
+        List<String> contentLengths = request.getHeaderValues("Content-Length");
+        if (contentLengths.isEmpty()) {
+            return RequestBody.empty();
+        }
+        if (contentLengths.size() > 1) {
+            throw new WebServerException(400, "Multiple Content-Length headers");
+        }
+        String contentLength = contentLengths.get(0).trim();
+        long length = parseContentLength(contentLength);
+        if (length < 0) {
+            throw new WebServerException(400, "Invalid Content-Length: " + contentLength);
+        }
+        if (length > maxBodySize) {
+            throw new WebServerException(413, "Request body exceeds " + maxBodySize + " bytes");
+        }
+        return length == 0 ? RequestBody.empty() : new RequestBody(this, length, false, maxBodySize, 0);
+    }
+
+    // 숫자만 허용한다 ("+5", "5, 5" 같은 값은 -1). 넘치면 -1.
+    private static long parseContentLength(String value) {
+        if (value.isEmpty() || value.length() > 18) {
+            return -1;
+        }
+        long length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            length = length * 10 + (c - '0');
+        }
+        return length;
+    }
+
+    // 본문 읽기: 버퍼에 남은 바이트를 먼저 주고, 비었으면 source에서 읽는다.
+    int read(byte[] b, int off, int len) throws IOException {
+        if (!buffer.hasRemaining()) {
+            // 버퍼보다 큰 읽기는 버퍼를 거치지 않는다.
+            if (len >= buffer.capacity()) {
+                return source.read(b, off, len);
+            }
+            buffer.position(0).limit(0);
+            if (fill() < 0) {
+                return -1;
+            }
+        }
+        int n = Math.min(len, buffer.remaining());
+        buffer.get(b, off, n);
+        return n;
+    }
+
+    // chunk 크기 줄처럼 짧은 줄을 읽는다. 줄 끝은 CRLF만 허용하고, 빼고 돌려준다.
+    String readLine(int maxLength) throws IOException {
+        StringBuilder line = new StringBuilder();
+        while (true) {
+            if (!buffer.hasRemaining()) {
+                buffer.position(0).limit(0);
+                if (fill() < 0) {
+                    throw new EOFException("Connection closed in the middle of a request body");
+                }
+            }
+            byte b = buffer.get();
+            boolean afterCr = line.length() > 0 && line.charAt(line.length() - 1) == '\r';
+            if (b == '\n') {
+                if (!afterCr) {
+                    throw new RequestBody.MalformedChunkException("Bare LF in chunked body");
+                }
+                line.setLength(line.length() - 1);
+                return line.toString();
+            }
+            if (afterCr) {
+                throw new RequestBody.MalformedChunkException("Bare CR in chunked body");
+            }
+            if (line.length() > maxLength) {
+                throw new IOException("Line in request body exceeds " + maxLength + " bytes");
+            }
+            line.append((char) (b & 0xFF));
+        }
+    }
+
+    int buffered() {
+        return buffer.remaining();
+    }
+
+    // 이미 받은 바이트만으로 요청 헤더가 완성됐는지 확인한다.
+    public boolean hasCompleteRequest() {
+        return parser.parse(buffer);
+    }
+
+    // 다음 요청의 헤더를 받기 시작했는지 (이벤트 루프의 헤더 시간 제한용)
+    public boolean isStarted() {
+        return parser.isStarted();
+    }
+
+    // 논블로킹 채널에서 지금 읽을 수 있는 만큼 읽는다.
+    public int fill(ReadableByteChannel channel) throws IOException {
+        ensureSpace();
+        int position = buffer.position();
+        buffer.position(buffer.limit());
+        buffer.limit(buffer.capacity());
+        try {
+            return channel.read(buffer);
+        } finally {
+            buffer.limit(buffer.position());
+            buffer.position(position);
+        }
+    }
+
+    private int fill() throws IOException {
+        ensureSpace();
+        int limit = buffer.limit();
+        int n = source.read(buffer.array(), buffer.arrayOffset() + limit, buffer.capacity() - limit);
+        if (n > 0) {
+            buffer.limit(limit + n);
+        }
+        return n;
+    }
+
+    // 뒤쪽이 가득 찼으면 처리한 앞부분을 비우고, 그래도 가득 차면 버퍼를 키운다.
+    private void ensureSpace() {
+        if (buffer.limit() < buffer.capacity()) {
+            return;
+        }
+        if (buffer.position() > 0) {
+            buffer.compact();
+            buffer.flip();
+            return;
+        }
+        if (buffer.capacity() < maxBufferSize) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.min(buffer.capacity() * 2, maxBufferSize));
+            larger.put(buffer);
+            larger.flip();
+            buffer = larger;
+        }
+    }
+}
@@ -1,74 +1,79 @@
 package com.example.http;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStreamReader;
-import java.net.Socket;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
+// 헤더 원본 바이트와 HttpRequestParser가 기록한 위치만 들고 있다가,
+// 요청한 헤더만 그때 문자열로 만든다.
 @Getter
 public class SimpleHttpRequest implements HttpRequest {
+    private static final String[] KNOWN_METHODS = {"GET", "HEAD", "POST", "PUT", "DELETE", "OPTIONS", "PATCH"};
+    private static final String[] KNOWN_PROTOCOLS = {"HTTP/1.1", "HTTP/1.0"};
+
     private final String method;
     private final String path;
     private final String protocol;
-    private final Map<String, String> headers;
     private final Map<String, String> parameters;
     private final String queryString;
     private String host;
     private int port;
     private String hostWithPort;
+    // 서블릿 패턴의 {name} 자리에 해당하는 값
+    private Map<String, String> pathParameters = Map.of();
+    // 연결한 클라이언트 주소 (커넥터가 채운다)
+    private InetAddress remoteAddress;
+    @Getter(AccessLevel.NONE)
+    private final byte[] head;
+    @Getter(AccessLevel.NONE)
+    private final int[] fields;
+    @Getter(AccessLevel.NONE)
+    private final int headerCount;
+    @Getter(AccessLevel.NONE)
+    private Map<String, String> headers;
+    @Getter(AccessLevel.NONE)
+    private RequestBody body = RequestBody.empty();
 
-    public SimpleHttpRequest(Socket socket) throws IOException {
-        BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream()));
-        this.headers = new HashMap<>();
-        this.parameters = new HashMap<>();
-
-        // Parse request line
-        String requestLine = reader.readLine();
-        if (requestLine == null || requestLine.isEmpty()) {
-            throw new IOException("Invalid request: empty request line");
-        }
-
-        String[] parts = requestLine.split(" ");
-        if (parts.length != 3) {
-            throw new IOException("Invalid request line format");
-        }
+    SimpleHttpRequest(byte[] head, int[] requestLine, int[] fields, int headerCount) {
+        this.head = head;
+        this.fields = fields;
+        this.headerCount = headerCount;
 
-        this.method = parts[0];
-        String fullPath = parts[1];
-        
-        this.protocol = parts[2];
+        this.method = ascii(0, requestLine[0], KNOWN_METHODS);
+        this.protocol = ascii(requestLine[3], requestLine[4], KNOWN_PROTOCOLS);
 
-        int queryIndex = fullPath.indexOf('?');
+        int targetStart = requestLine[1];
+        int targetEnd = requestLine[2];
+        int queryIndex = indexOf((byte) '?', targetStart, targetEnd);
         if (queryIndex != -1) {
-            this.path = fullPath.substring(0, queryIndex);
-            this.queryString = fullPath.substring(queryIndex + 1);
-            parseParameters(this.queryString);
+            this.path = new String(head, targetStart, queryIndex - targetStart, StandardCharsets.UTF_8);
+            this.queryString = new String(head, queryIndex + 1, targetEnd - queryIndex - 1, StandardCharsets.UTF_8);
+            this.parameters = parseParameters(queryString);
         } else {
-            this.path = fullPath;
+            this.path = new String(head, targetStart, targetEnd - targetStart, StandardCharsets.UTF_8);
             this.queryString = null;
+            this.parameters = Map.of();
         }
 
-        String line;
-        while ((line = reader.readLine()) != null && !line.isEmpty()) {
-            int colonIndex = line.indexOf(':');
-            if (colonIndex != -1) {
-                String headerName = line.substring(0, colonIndex).trim();
-                String headerValue = line.substring(colonIndex + 1).trim();
-                headers.put(headerName, headerValue);
-            }
-        }
-
-        String hostHeader = headers.get("Host");
+        String hostHeader = getHeader("Host");
 
         this.hostWithPort = hostHeader;
         parseHostAndPort(hostHeader);
     }
 
     private void parseHostAndPort(String hostHeader) {
+        if (hostHeader == null) {
+            this.port = 80;
+            return;
+        }
         int portIndex = hostHeader.indexOf(':');
         if (portIndex != -1) {
             this.host = hostHeader.substring(0, portIndex);
@@ -83,7 +88,8 @@ public class SimpleHttpRequest implements HttpRequest {
         }
     }
 
-    private void parseParameters(String queryString) {
+    private static Map<String, String> parseParameters(String queryString) {
+        Map<String, String> parameters = new HashMap<>();
         String[] pairs = queryString.split("&");
         for (String pair : pairs) {
             int equalIndex = pair.indexOf('=');
@@ -93,6 +99,7 @@ public class SimpleHttpRequest implements HttpRequest {
                 parameters.put(name, value);
             }
         }
+        return parameters;
     }
 
     @Override
@@ -118,4 +125,150 @@ public class SimpleHttpRequest implements HttpRequest {
         return path;
     }
 
-} 
\ No newline at end of file
+    public String getPathParameter(String name) {
+        return pathParameters.get(name);
+    }
+
+    public void setPathParameters(Map<String, String> pathParameters) {
+        this.pathParameters = pathParameters;
+    }
+
+    // 요청 본문. 본문이 없으면 바로 끝나는 스트림이다.
+    public RequestBody getInputStream() {
+        return body;
+    }
+
+    public void setRemoteAddress(InetAddress remoteAddress) {
+        this.remoteAddress = remoteAddress;
+    }
+
+    void setBody(RequestBody body) {
+        this.body = body;
+    }
+
+    // HTTP/1.1 클라이언트가 본문을 보내기 전에 100 Continue를 기다리는지
+    public boolean isExpectContinue() {
+        return "HTTP/1.1".equals(protocol) && "100-continue".equalsIgnoreCase(getHeader("Expect"));
+    }
+
+    // 같은 이름의 헤더가 여러 번 오면 마지막 값을 쓴다.
+    public String getHeader(String name) {
+        for (int i = headerCount - 1; i >= 0; i--) {
+            int offset = i * 4;
+            if (nameEquals(fields[offset], fields[offset + 1], name)) {
+                return latin1(fields[offset + 2], fields[offset + 3]);
+            }
+        }
+        return null;
+    }
+
+    // 같은 이름의 헤더 값을 받은 순서대로 모두 돌려준다.
+    public List<String> getHeaderValues(String name) {
+        List<String> values = new ArrayList<>(1);
+        for (int i = 0; i < headerCount; i++) {
+            int offset = i * 4;
+            if (nameEquals(fields[offset], fields[offset + 1], name)) {
+                values.add(latin1(fields[offset + 2], fields[offset + 3]));
+            }
+        }
+        return values;
+    }
+
+    // 전체 헤더 맵은 처음 요청될 때 한 번만 만든다.
+    public Map<String, String> getHeaders() {
+        if (headers == null) {
+            Map<String, String> all = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            for (int i = 0; i < headerCount; i++) {
+                int offset = i * 4;
+                all.put(latin1(fields[offset], fields[offset + 1]), latin1(fields[offset + 2], fields[offset + 3]));
+            }
+            headers = Collections.unmodifiableMap(all);
+        }
+        return headers;
+    }
+
+    public boolean isKeepAlive() {
+        // Transfer-Encoding과 Content-Length가 같이 오면 앞단 프록시가 본문 경계를 다르게 보았을 수 있으므로
+        // chunked로 읽은 뒤 연결을 닫는다 (RFC 9112 6.3).
+        if (getHeader("Transfer-Encoding") != null && getHeader("Content-Length") != null) {
+            return false;
+        }
+        String connection = getHeader("Connection");
+        if ("HTTP/1.0".equals(protocol)) {
+            return hasConnectionToken(connection, "keep-alive");
+        }
+        return !hasConnectionToken(connection, "close");
+    }
+
+    public boolean hasBody() {
+        String contentLength = getHeader("Content-Length");
+        return getHeader("Transfer-Encoding") != null
+                || (contentLength != null && !contentLength.trim().equals("0"));
+    }
+
+    private static boolean hasConnectionToken(String connection, String token) {
+        if (connection == null) {
+            return false;
+        }
+        for (String value : connection.split(",")) {
+            if (value.trim().equalsIgnoreCase(token)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean nameEquals(int start, int end, String name) {
+        if (end - start != name.length()) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            int a = head[start + i];
+            int b = name.charAt(i);
+            if (a != b && toLowerAscii(a) != toLowerAscii(b)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 자주 쓰이는 값이면 상수 문자열을 그대로 돌려준다.
+    private String ascii(int start, int end, String[] known) {
+        for (String candidate : known) {
+            if (regionEquals(start, end, candidate)) {
+                return candidate;
+            }
+        }
+        return latin1(start, end);
+    }
+
+    private boolean regionEquals(int start, int end, String value) {
+        if (end - start != value.length()) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (head[start + i] != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int indexOf(byte target, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (head[i] == target) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private String latin1(int start, int end) {
+        return new String(head, start, end - start, StandardCharsets.ISO_8859_1);
+    }
+
+    private static int toLowerAscii(int c) {
+        return c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c;
+    }
+
+}
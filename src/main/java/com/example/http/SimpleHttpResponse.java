@@ -7,37 +7,63 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
-import java.time.ZonedDateTime;
-import java.time.format.DateTimeFormatter;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.zip.DeflaterOutputStream;
 
+// 본문은 bufferSize 까지 모았다가 finish() 때 Content-Length와 함께 한 번에 보낸다.
+// 버퍼가 넘치거나 서블릿이 flush() 하면 그 시점에 커밋하고 chunked로 이어서 보낸다.
 @Slf4j
 public class SimpleHttpResponse implements HttpResponse, AutoCloseable {
-    private static final String CRLF = "\r\n";
-    private static final DateTimeFormatter HTTP_DATE_FORMATTER = 
-        DateTimeFormatter.ofPattern("EEE, dd MMM yyyy HH:mm:ss z");
+    private static final int DEFAULT_BUFFER_SIZE = 8 * 1024;
 
     private final OutputStream outputStream;
     private final Map<String, String> headers;
     private final Config config;
+    private final int bufferSize;
+    private byte[] bodyBuffer;
+    private int buffered;
+    private final OutputStream bodyStream;
     private String contentType;
     private int statusCode;
     private String statusMessage;
     private boolean committed;
     private String host;
     private boolean headersSent;
+    private boolean keepAlive;
+    private boolean bodySuppressed;
+    private long contentLength;
+    private long bytesWritten;
+    private long zeroCopyBytes;
+    private Writer writer;
+    private WritableByteChannel channel;
+    private String acceptEncoding;
+    private boolean chunkedSupported = true;
+    private boolean chunked;
+    // 커밋 후 길이를 모르는 본문이 지나가는 스트림 (압축 → chunked 또는 연결 종료로 끝을 알림)
+    private OutputStream streamingOut;
+    private DeflaterOutputStream compressor;
+    private ChunkedOutputStream chunkedOut;
+    private boolean finishing;
 
     public SimpleHttpResponse(OutputStream outputStream, Config config, String host) {
         this.outputStream = outputStream;
         this.config = config;
         this.host = host;
         this.headers = new HashMap<>();
+        this.bufferSize = config != null ? config.getResponse().bufferSize() : DEFAULT_BUFFER_SIZE;
+        this.bodyStream = new BodyOutputStream();
         this.statusCode = 200;
         this.statusMessage = "OK";
         this.committed = false;
         this.headersSent = false;
+        this.contentLength = -1;
     }
 
     public void setHost(String host) {
@@ -50,39 +76,296 @@ public class SimpleHttpResponse implements HttpResponse, AutoCloseable {
         this.statusMessage = statusMessage;
     }
 
-    @Override
-    public void close() throws IOException {
-        if (!committed) {
+    public int getStatus() {
+        return statusCode;
+    }
+
+    // 소켓이 채널 기반(NIO 커넥터)이면 파일을 transferTo로 보낼 수 있다.
+    public void setChannel(WritableByteChannel channel) {
+        this.channel = channel;
+    }
+
+    // 버퍼에 모인 본문(서블릿 출력 등)을 압축할지 결정할 때 쓰는 요청의 Accept-Encoding
+    public void setAcceptEncoding(String acceptEncoding) {
+        this.acceptEncoding = acceptEncoding;
+    }
+
+    // HTTP/1.0 클라이언트는 chunked를 모르므로 길이를 모르는 본문은 연결을 닫아 끝을 알린다.
+    public void setChunkedSupported(boolean chunkedSupported) {
+        this.chunkedSupported = chunkedSupported;
+    }
+
+    public void setKeepAlive(boolean keepAlive) {
+        this.keepAlive = keepAlive;
+    }
+
+    public boolean isKeepAlive() {
+        return keepAlive;
+    }
+
+    // HEAD 요청: 헤더는 그대로 보내고 본문만 생략
+    public void setBodySuppressed(boolean bodySuppressed) {
+        this.bodySuppressed = bodySuppressed;
+    }
+
+    // 길이를 미리 알면 버퍼링 없이 바로 스트리밍한다.
+    public void setContentLength(long contentLength) {
+        this.contentLength = contentLength;
+    }
+
+    // 보낸 본문 바이트 수 (chunked로 보낸 경우 압축 전 크기)
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    // 그중 채널로 sendfile(2) 전송한 바이트 수
+    public long getZeroCopyBytes() {
+        return zeroCopyBytes;
+    }
+
+    // 상태 줄과 헤더를 이미 보냈으면 true. 그 뒤로는 상태나 헤더를 바꿀 수 없다.
+    public boolean isCommitted() {
+        return committed;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    // 상태와 헤더까지 모두 지운다.
+    public void reset() {
+        resetBuffer();
+        headers.clear();
+        contentType = null;
+        contentLength = -1;
+        statusCode = 200;
+        statusMessage = "OK";
+    }
+
+    // 버퍼에 모인 본문만 버린다. writer 안에 남은 문자도 함께 버린다.
+    public void resetBuffer() {
+        if (committed) {
+            throw new IllegalStateException("Response already committed");
+        }
+        buffered = 0;
+        writer = null;
+    }
+
+    // 지금까지의 본문을 보낸다. 아직 커밋 전이면 이 시점에 헤더를 보내며 길이를 모르면 chunked가 된다.
+    public void flush() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        } else {
+            bodyStream.flush();
+        }
+    }
+
+    public void sendFile(Path filePath) throws IOException {
+        try (FileChannel file = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            sendFile(file, 0, file.size());
+        }
+    }
+
+    // 파일 구간을 본문 전체로 보낸다.
+    public void sendFile(FileChannel file, long position, long count) throws IOException {
+        if (headersSent) {
+            throw new IllegalStateException("Response already committed");
+        }
+        setContentLength(count);
+        sendHeaders();
+        transferFile(file, position, count);
+    }
+
+    // 이미 시작된 본문에 파일 구간을 이어 쓴다. 채널이 있으면 sendfile(2)로 사용자 공간 복사 없이
+    // 전송하고, 없으면 소켓 스트림으로 복사한다.
+    public void transferFile(FileChannel file, long position, long count) throws IOException {
+        if (!headersSent) {
+            throw new IllegalStateException("Content-Length must be declared before transferring a file");
+        }
+        if (bodySuppressed || isBodyless()) {
+            return;
+        }
+        if (bytesWritten + count > contentLength) {
+            throw new IOException("Response body exceeds declared Content-Length " + contentLength);
+        }
+
+        WritableByteChannel target = channel;
+        if (target == null) {
+            target = Channels.newChannel(outputStream);
+        } else {
+            outputStream.flush();
+        }
+        // sendfile은 스트림을 거치지 않으므로 쓰기 시간 감시를 직접 건다.
+        TimedOutputStream timed = channel != null && outputStream instanceof TimedOutputStream t ? t : null;
+        if (timed != null) {
+            timed.begin();
+        }
+        long sent = 0;
+        try {
+            while (sent < count) {
+                long transferred = file.transferTo(position + sent, count - sent, target);
+                if (transferred <= 0) {
+                    throw new IOException("File truncated while sending: " + (count - sent) + " bytes missing");
+                }
+                sent += transferred;
+            }
+        } finally {
+            if (timed != null) {
+                timed.end();
+            }
+        }
+        bytesWritten += sent;
+        if (channel != null) {
+            zeroCopyBytes += sent;
+        }
+    }
+
+    // 응답을 완료한다. 소켓은 닫지 않으므로 연결을 재사용할 수 있다.
+    public void finish() throws IOException {
+        // writer에 남은 문자를 본문 버퍼로 옮길 뿐 커밋하지는 않는다.
+        finishing = true;
+        if (writer != null) {
+            writer.flush();
+        }
+        if (!headersSent) {
+            byte[] body = compressBufferedBody();
+            contentLength = body != null ? body.length : buffered;
             sendHeaders();
+            if (!bodySuppressed && !isBodyless()) {
+                if (body != null) {
+                    outputStream.write(body);
+                } else if (buffered > 0) {
+                    outputStream.write(bodyBuffer, 0, buffered);
+                }
+                bytesWritten = contentLength;
+            }
+        } else if (streamingOut != null && !bodySuppressed) {
+            if (compressor != null) {
+                compressor.finish();
+            }
+            if (chunkedOut != null) {
+                chunkedOut.finish();
+            }
+        } else if (!bodySuppressed && !isBodyless() && bytesWritten != contentLength) {
+            log.warn("Response body length mismatch: declared {}, written {}", contentLength, bytesWritten);
+            keepAlive = false;
         }
-        outputStream.close();
+        outputStream.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        finish();
     }
 
     @Override
     public void setHeader(String name, String value) {
+        if ("Content-Length".equalsIgnoreCase(name)) {
+            setContentLength(Long.parseLong(value.trim()));
+            return;
+        }
         headers.put(name, value);
     }
 
     @Override
     public void setContentType(String contentType) {
         this.contentType = contentType;
-        setHeader("Content-Type", contentType);
     }
 
     @Override
     public Writer getWriter() throws IOException {
-        if (!headersSent) {
-            sendHeaders();
+        if (writer == null) {
+            // 서블릿이 writer를 닫아도 응답은 finish() 때 완료된다.
+            writer = new OutputStreamWriter(getOutputStream(), StandardCharsets.UTF_8) {
+                @Override
+                public void close() throws IOException {
+                    flush();
+                }
+            };
         }
-        return new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+        return writer;
     }
 
     @Override
     public OutputStream getOutputStream() throws IOException {
-        if (!headersSent) {
+        if (contentLength >= 0 && !headersSent) {
             sendHeaders();
         }
-        return outputStream;
+        return bodyStream;
+    }
+
+    // 압축하지 않으면 null
+    private byte[] compressBufferedBody() throws IOException {
+        String encoding = negotiateCompression(buffered);
+        return encoding != null ? ContentEncoding.compress(bodyBuffer, 0, buffered, encoding) : null;
+    }
+
+    // 압축할 수 있으면 Vary/Content-Encoding 헤더를 붙이고 코딩을 돌려준다.
+    private String negotiateCompression(long length) {
+        if (config == null || isBodyless() || headers.containsKey("Content-Encoding")
+                || !config.getCompression().isCompressible(contentType, length)) {
+            return null;
+        }
+        headers.put("Vary", "Accept-Encoding");
+        String encoding = ContentEncoding.negotiate(acceptEncoding, ContentEncoding.ON_THE_FLY);
+        if (encoding != null) {
+            headers.put("Content-Encoding", encoding);
+        }
+        return encoding;
+    }
+
+    // 길이를 모르는 채로 커밋한다. 버퍼에 모인 본문은 스트리밍 경로로 흘려보낸다.
+    private void commitStreaming() throws IOException {
+        boolean streaming = contentLength < 0 && !isBodyless();
+        String encoding = null;
+        if (streaming) {
+            // 버퍼가 넘쳤다면 본문은 minBytes보다 크다고 본다.
+            encoding = negotiateCompression(finishing ? buffered : Math.max(buffered, bufferSize));
+            chunked = chunkedSupported;
+            if (!chunked) {
+                keepAlive = false;
+            }
+        }
+        sendHeaders();
+        // 압축 스트림은 만들 때 바로 헤더를 쓰므로 응답 헤더를 보낸 뒤에 만든다.
+        if (streaming) {
+            OutputStream target = outputStream;
+            if (chunked) {
+                chunkedOut = new ChunkedOutputStream(outputStream);
+                target = chunkedOut;
+            }
+            if (encoding != null) {
+                compressor = ContentEncoding.compressor(target, encoding);
+                target = compressor;
+            }
+            streamingOut = target;
+        }
+        if (buffered > 0) {
+            int length = buffered;
+            buffered = 0;
+            writeCommitted(bodyBuffer, 0, length);
+        }
+    }
+
+    private void writeCommitted(byte[] b, int off, int len) throws IOException {
+        if (bodySuppressed || isBodyless()) {
+            return;
+        }
+        if (streamingOut != null) {
+            streamingOut.write(b, off, len);
+            bytesWritten += len;
+            return;
+        }
+        if (bytesWritten + len > contentLength) {
+            throw new IOException("Response body exceeds declared Content-Length " + contentLength);
+        }
+        outputStream.write(b, off, len);
+        bytesWritten += len;
+    }
+
+    // 204, 304 응답은 본문도 Content-Length도 보내지 않는다.
+    private boolean isBodyless() {
+        return statusCode == 204 || statusCode == 304;
     }
 
     private void sendHeaders() throws IOException {
@@ -90,22 +373,67 @@ public class SimpleHttpResponse implements HttpResponse, AutoCloseable {
             return;
         }
 
-        StringBuilder headerBuilder = new StringBuilder();
-        headerBuilder.append("HTTP/1.1 ").append(statusCode).append(" ").append(statusMessage).append(CRLF);
-        
+        HeaderEncoder encoder = HeaderEncoder.acquire();
+        encoder.statusLine(statusCode, statusMessage);
         if (contentType != null) {
-            headerBuilder.append("Content-Type: ").append(contentType).append(CRLF);
+            encoder.header(HeaderEncoder.CONTENT_TYPE, contentType);
+        }
+        if (chunked) {
+            encoder.line(HeaderEncoder.TRANSFER_ENCODING_CHUNKED);
+        } else if (!isBodyless() && contentLength >= 0) {
+            encoder.header(HeaderEncoder.CONTENT_LENGTH, contentLength);
         }
-        
-        headerBuilder.append("Date: ").append(ZonedDateTime.now().format(HTTP_DATE_FORMATTER)).append(CRLF);
-        
+        encoder.line(keepAlive ? HeaderEncoder.CONNECTION_KEEP_ALIVE : HeaderEncoder.CONNECTION_CLOSE);
+        encoder.line(DateHeader.current());
         for (Map.Entry<String, String> header : headers.entrySet()) {
-            headerBuilder.append(header.getKey()).append(": ").append(header.getValue()).append(CRLF);
+            encoder.header(header.getKey(), header.getValue());
         }
-        
-        headerBuilder.append(CRLF);
-        outputStream.write(headerBuilder.toString().getBytes(StandardCharsets.UTF_8));
+        encoder.end();
+        encoder.writeTo(outputStream);
         headersSent = true;
         committed = true;
     }
-} 
\ No newline at end of file
+
+    // 서블릿이 close()를 호출해도 소켓이 닫히지 않도록 감싼 본문 스트림
+    private class BodyOutputStream extends OutputStream {
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (!headersSent) {
+                if (buffered + len <= bufferSize) {
+                    if (bodyBuffer == null) {
+                        bodyBuffer = new byte[bufferSize];
+                    }
+                    System.arraycopy(b, off, bodyBuffer, buffered, len);
+                    buffered += len;
+                    return;
+                }
+                commitStreaming();
+            }
+            writeCommitted(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (!headersSent) {
+                if (finishing) {
+                    return;
+                }
+                commitStreaming();
+            }
+            if (streamingOut != null) {
+                streamingOut.flush();
+            }
+            outputStream.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.http;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+// 소켓 쓰기가 언제부터 막혀 있는지 기록한다. 자바 소켓에는 쓰기 시간 제한이 없으므로
+// 감시 스레드가 writingSince를 보고 너무 오래 막힌 연결을 닫아 쓰던 스레드를 풀어 준다.
+public class TimedOutputStream extends FilterOutputStream {
+    private volatile long writingSince;
+
+    public TimedOutputStream(OutputStream out) {
+        super(out);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        begin();
+        try {
+            out.write(b);
+        } finally {
+            end();
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        begin();
+        try {
+            out.write(b, off, len);
+        } finally {
+            end();
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        begin();
+        try {
+            out.flush();
+        } finally {
+            end();
+        }
+    }
+
+    // 스트림을 거치지 않는 쓰기(sendfile)도 이 사이에 두면 감시 대상이 된다.
+    public void begin() {
+        writingSince = System.nanoTime() | 1;
+    }
+
+    public void end() {
+        writingSince = 0;
+    }
+
+    // 쓰는 중이 아니면 false
+    public boolean isStalled(long now, long timeoutNanos) {
+        long since = writingSince;
+        return since != 0 && now - since > timeoutNanos;
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.log;
+
+import com.example.config.Config;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// 요청당 한 줄의 접근 로그. 작업 스레드는 링 버퍼의 칸 하나를 CAS로 잡아 값만 채우고 돌아가며,
+// 문자열 만들기와 파일 쓰기는 전용 스레드가 모아서 한다. 버퍼가 가득 차면 기다리지 않고 버린다.
+//   2026-10-17T04:39:54.123Z localhost "GET /index.html HTTP/1.1" 200 1234 0.512ms
+@Slf4j
+public class AccessLog implements Closeable {
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private final int capacity;
+    private final int mask;
+    private final double sampleRate;
+    // 칸마다 채워진 순번. 쓰는 쪽이 값을 다 채운 뒤에 기록하므로, 읽는 쪽은 순번이 맞을 때만 읽는다.
+    private final AtomicLongArray published;
+    private final long[] times;
+    private final String[] methods;
+    private final String[] paths;
+    private final String[] protocols;
+    private final String[] hosts;
+    private final int[] statuses;
+    private final long[] sizes;
+    private final long[] latencies;
+    private final AtomicLong tail = new AtomicLong();
+    // 다음에 읽을 순번. 기록 스레드만 바꾼다.
+    private volatile long head;
+    private final LongAdder dropped = new LongAdder();
+    private final OutputStream out;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public AccessLog(Config.AccessLogConfig accessLogConfig) throws IOException {
+        this.capacity = Integer.highestOneBit(Math.max(accessLogConfig.bufferSize() - 1, 1)) << 1;
+        this.mask = capacity - 1;
+        this.sampleRate = accessLogConfig.sampleRate();
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, -1);
+        }
+        this.times = new long[capacity];
+        this.methods = new String[capacity];
+        this.paths = new String[capacity];
+        this.protocols = new String[capacity];
+        this.hosts = new String[capacity];
+        this.statuses = new int[capacity];
+        this.sizes = new long[capacity];
+        this.latencies = new long[capacity];
+
+        Path file = Path.of(accessLogConfig.path());
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        this.out = new BufferedOutputStream(new FileOutputStream(file.toFile(), true), 64 * 1024);
+        this.writer = new Thread(this::run, "access-log-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    // 요청 스레드에서 부른다. 표본에서 빠지거나 버퍼가 가득 차면 아무것도 하지 않는다. 5xx는 항상 남긴다.
+    public void log(String method, String path, String protocol, String host, int status, long bytes,
+                    long latencyNanos) {
+        if (sampleRate < 1.0 && status < 500 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        long sequence;
+        do {
+            sequence = tail.get();
+            if (sequence - head >= capacity) {
+                dropped.increment();
+                return;
+            }
+        } while (!tail.compareAndSet(sequence, sequence + 1));
+
+        int slot = (int) sequence & mask;
+        times[slot] = System.currentTimeMillis();
+        methods[slot] = method;
+        paths[slot] = path;
+        protocols[slot] = protocol;
+        hosts[slot] = host;
+        statuses[slot] = status;
+        sizes[slot] = bytes;
+        latencies[slot] = latencyNanos;
+        published.lazySet(slot, sequence);
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    private void run() {
+        StringBuilder line = new StringBuilder(256);
+        while (true) {
+            try {
+                if (drain(line) == 0) {
+                    // 멈출 때는 남은 기록을 모두 쓴 뒤에 끝낸다.
+                    if (!running) {
+                        break;
+                    }
+                    out.flush();
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+            } catch (IOException e) {
+                log.warn("Failed to write access log: {}", e.getMessage());
+                if (!running) {
+                    break;
+                }
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+        try {
+            out.flush();
+        } catch (IOException e) {
+            log.warn("Failed to flush access log: {}", e.getMessage());
+        }
+    }
+
+    // 채워진 칸을 순서대로 읽어 버퍼에 쓴다. 쓰는 중인 칸을 만나면 멈춘다.
+    private int drain(StringBuilder line) throws IOException {
+        int count = 0;
+        long next = head;
+        while (count < capacity) {
+            int slot = (int) next & mask;
+            if (published.get(slot) != next) {
+                break;
+            }
+            line.setLength(0);
+            line.append(Instant.ofEpochMilli(times[slot])).append(' ')
+                    .append(hosts[slot] != null ? hosts[slot] : "-").append(" \"")
+                    .append(methods[slot]).append(' ').append(paths[slot]).append(' ').append(protocols[slot])
+                    .append("\" ").append(statuses[slot]).append(' ').append(sizes[slot]).append(' ');
+            long micros = latencies[slot] / 1000;
+            line.append(micros / 1000).append('.');
+            long fraction = micros % 1000;
+            if (fraction < 100) {
+                line.append(fraction < 10 ? "00" : "0");
+            }
+            line.append(fraction).append("ms\n");
+            methods[slot] = null;
+            paths[slot] = null;
+            protocols[slot] = null;
+            hosts[slot] = null;
+            next++;
+            head = next;
+            out.write(line.toString().getBytes(StandardCharsets.UTF_8));
+            count++;
+        }
+        return count;
+    }
+
+    // 남은 기록을 모두 쓰고 파일을 닫는다.
+    @Override
+    public void close() throws IOException {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        out.close();
+        long lost = dropped.sum();
+        if (lost > 0) {
+            log.warn("Access log dropped {} records because the buffer was full", lost);
+        }
+    }
+}
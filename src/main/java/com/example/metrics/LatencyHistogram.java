@@ -0,0 +1,94 @@
+package com.example.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// HDR 방식의 지연 시간 히스토그램 (마이크로초 단위).
+// 2의 거듭제곱 구간마다 8칸으로 나누므로 상대 오차가 12.5% 이내이고, 기록은 LongAdder 증가 한 번이다.
+public class LatencyHistogram {
+    private static final int SUB_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    // 2^36 마이크로초(약 19시간)보다 긴 값은 마지막 칸에 넣는다.
+    private static final int MAX_EXPONENT = 35;
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BITS + 2) * SUB_BUCKETS;
+
+    private final LongAdder[] counts = new LongAdder[BUCKETS];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sumMicros = new LongAdder();
+
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+
+    // 칸 번호는 올림한 마이크로초에서 1을 뺀 값으로 정한다. 그러면 칸마다 상한을 포함하게 되어
+    // 정확히 경계에 걸린 값도 Prometheus의 le(<=) 정의대로 그 경계 칸에 들어간다.
+    public void record(long nanos) {
+        long micros = Math.max(0, nanos / 1000);
+        counts[index(Math.max(0, (nanos - 1) / 1000))].increment();
+        count.increment();
+        sumMicros.add(micros);
+    }
+
+    static int index(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        int sub = (int) (micros >>> (exponent - SUB_BITS)) - SUB_BUCKETS;
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    // index 칸의 상한 (마이크로초, 포함하지 않음)
+    static long upperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index + 1;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BITS - 1;
+        int sub = index % SUB_BUCKETS;
+        return (long) (SUB_BUCKETS + sub + 1) << (exponent - SUB_BITS);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getSumMicros() {
+        return sumMicros.sum();
+    }
+
+    // 2^exponent 마이크로초 이하로 기록된 수. 2의 거듭제곱은 칸 경계와 맞으므로 정확하다.
+    public long countAtMostPowerOfTwo(int exponent) {
+        int end = exponent < SUB_BITS ? 1 << exponent : Math.min(BUCKETS, (exponent - SUB_BITS + 1) * SUB_BUCKETS);
+        long total = 0;
+        for (int i = 0; i < end; i++) {
+            total += counts[i].sum();
+        }
+        return total;
+    }
+
+    // 분위수 근사값 (마이크로초). 해당 칸의 상한(포함)을 돌려준다.
+    public long percentile(double quantile) {
+        long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts[i].sum();
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank && snapshot[i] > 0) {
+                return upperBound(i);
+            }
+        }
+        return upperBound(BUCKETS - 1);
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.metrics;
+
+import com.example.config.Config;
+import com.example.exception.WebServerException;
+import com.example.http.SimpleHttpRequest;
+import com.example.http.SimpleHttpResponse;
+import com.example.servlet.SimpleServlet;
+
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+
+// 실행 중인 서버의 계측값을 Prometheus 텍스트 형식으로 내보낸다.
+// 연결 수나 지연 분포가 드러나므로 기본은 루프백 클라이언트에만 응답한다.
+// 수집기가 다른 호스트에 있으면 initParameters의 allowRemote를 "true"로 둔다.
+public class MetricsServlet implements SimpleServlet {
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private ServerMetrics metrics;
+    private boolean allowRemote;
+
+    @Override
+    public void init(Config.ServletConfig servletConfig) {
+        this.metrics = ServerMetrics.current();
+        this.allowRemote = Boolean.parseBoolean(servletConfig.initParameters().get("allowRemote"));
+    }
+
+    @Override
+    public void service(SimpleHttpRequest request, SimpleHttpResponse response) throws Exception {
+        if (metrics == null) {
+            throw new WebServerException(404, "Metrics are not available");
+        }
+        InetAddress client = request.getRemoteAddress();
+        if (!allowRemote && (client == null || !client.isLoopbackAddress())) {
+            throw new WebServerException(403, "Metrics are only available to local clients");
+        }
+        StringBuilder body = new StringBuilder(4096);
+        metrics.writePrometheus(body);
+        byte[] bytes = body.toString().getBytes(StandardCharsets.UTF_8);
+        response.setContentType(CONTENT_TYPE);
+        response.setContentLength(bytes.length);
+        response.getOutputStream().write(bytes);
+    }
+}
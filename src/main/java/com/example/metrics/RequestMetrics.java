@@ -0,0 +1,43 @@
+package com.example.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// 호스트 하나 또는 서블릿 경로 하나의 요청 통계.
+public class RequestMetrics {
+    private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    void record(int status, long responseBytes, long nanos) {
+        LongAdder counter = statuses.get(status);
+        if (counter == null) {
+            counter = statuses.computeIfAbsent(status, key -> new LongAdder());
+        }
+        counter.increment();
+        bytes.add(responseBytes);
+        latency.record(nanos);
+    }
+
+    void recordError() {
+        errors.increment();
+    }
+
+    public Map<Integer, LongAdder> getStatuses() {
+        return statuses;
+    }
+
+    public long getBytes() {
+        return bytes.sum();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.metrics;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.LongAdder;
+
+// 서버 하나의 계측값. 요청 스레드는 LongAdder 증가만 하고, 문자열은 수집(scrape)할 때 만든다.
+public class ServerMetrics {
+    // 내보낼 히스토그램 경계: 2^7 ~ 2^25 마이크로초 (약 0.13ms ~ 33.5s)
+    private static final int FIRST_BUCKET_EXPONENT = 7;
+    private static final int LAST_BUCKET_EXPONENT = 25;
+    private static final String[] BUCKET_BOUNDS = new String[LAST_BUCKET_EXPONENT - FIRST_BUCKET_EXPONENT + 1];
+    private static volatile ServerMetrics current;
+
+    static {
+        for (int exponent = FIRST_BUCKET_EXPONENT; exponent <= LAST_BUCKET_EXPONENT; exponent++) {
+            BUCKET_BOUNDS[exponent - FIRST_BUCKET_EXPONENT] =
+                    BigDecimal.valueOf(1L << exponent).movePointLeft(6).toPlainString();
+        }
+    }
+
+    private final Map<String, RequestMetrics> hosts = new ConcurrentHashMap<>();
+    private final Map<String, RequestMetrics> servlets = new ConcurrentHashMap<>();
+    private final LongAdder activeConnections = new LongAdder();
+    private final LongAdder acceptedConnections = new LongAdder();
+    private final Map<String, LongAdder> rejected = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> timeouts = new ConcurrentHashMap<>();
+    private final LongAdder zeroCopyBytes = new LongAdder();
+    private volatile ExecutorService executor;
+
+    // MetricsServlet은 설정에서 이름으로 만들어지므로 init에서 시작 중인 서버의 계측값을 여기서 찾는다.
+    public static ServerMetrics current() {
+        return current;
+    }
+
+    public static void setCurrent(ServerMetrics metrics) {
+        current = metrics;
+    }
+
+    public static void clearCurrent(ServerMetrics metrics) {
+        if (current == metrics) {
+            current = null;
+        }
+    }
+
+    public void monitorExecutor(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    public void connectionOpened() {
+        acceptedConnections.increment();
+        activeConnections.increment();
+    }
+
+    public void connectionClosed() {
+        activeConnections.decrement();
+    }
+
+    public void recordRequest(String host, int status, long bytes, long nanos) {
+        metrics(hosts, host != null ? host : "-").record(status, bytes, nanos);
+    }
+
+    // 힙을 거치지 않고 transferTo(sendfile)로 보낸 본문 바이트
+    public void recordZeroCopy(long bytes) {
+        zeroCopyBytes.add(bytes);
+    }
+
+    public long getZeroCopyBytes() {
+        return zeroCopyBytes.sum();
+    }
+
+    public void recordServlet(String route, int status, long nanos, boolean failed) {
+        RequestMetrics metrics = metrics(servlets, route);
+        metrics.record(status, 0, nanos);
+        if (failed) {
+            metrics.recordError();
+        }
+    }
+
+    public RequestMetrics getHost(String host) {
+        return hosts.get(host);
+    }
+
+    public RequestMetrics getServlet(String route) {
+        return servlets.get(route);
+    }
+
+    // 과부하로 거절한 연결이나 요청 (reason: max_connections, client_limit, queue_full)
+    public void recordRejected(String reason) {
+        counter(rejected, reason).increment();
+    }
+
+    public long getRejected(String reason) {
+        LongAdder counter = rejected.get(reason);
+        return counter != null ? counter.sum() : 0;
+    }
+
+    // 시간 초과로 끊은 연결이나 요청 (phase: header, body, write)
+    public void recordTimeout(String phase) {
+        counter(timeouts, phase).increment();
+    }
+
+    public long getTimeouts(String phase) {
+        LongAdder counter = timeouts.get(phase);
+        return counter != null ? counter.sum() : 0;
+    }
+
+    private static LongAdder counter(Map<String, LongAdder> map, String key) {
+        LongAdder counter = map.get(key);
+        return counter != null ? counter : map.computeIfAbsent(key, k -> new LongAdder());
+    }
+
+    public long getActiveConnections() {
+        return activeConnections.sum();
+    }
+
+    private static RequestMetrics metrics(Map<String, RequestMetrics> map, String key) {
+        RequestMetrics metrics = map.get(key);
+        return metrics != null ? metrics : map.computeIfAbsent(key, k -> new RequestMetrics());
+    }
+
+    // Prometheus 텍스트 형식 (version 0.0.4)
+    public void writePrometheus(StringBuilder out) {
+        out.append("# HELP http_connections_active Open client connections.\n");
+        out.append("# TYPE http_connections_active gauge\n");
+        out.append("http_connections_active ").append(activeConnections.sum()).append('\n');
+        out.append("# HELP http_connections_accepted_total Accepted client connections.\n");
+        out.append("# TYPE http_connections_accepted_total counter\n");
+        out.append("http_connections_accepted_total ").append(acceptedConnections.sum()).append('\n');
+        out.append("# HELP http_rejected_total Connections or requests shed under load, by reason.\n");
+        out.append("# TYPE http_rejected_total counter\n");
+        new TreeMap<>(rejected).forEach((reason, count) ->
+                out.append("http_rejected_total{reason=\"").append(reason).append("\"} ")
+                        .append(count.sum()).append('\n'));
+        out.append("# HELP http_timeouts_total Connections closed or requests failed on a timeout, by phase.\n");
+        out.append("# TYPE http_timeouts_total counter\n");
+        new TreeMap<>(timeouts).forEach((phase, count) ->
+                out.append("http_timeouts_total{phase=\"").append(phase).append("\"} ")
+                        .append(count.sum()).append('\n'));
+
+        if (executor instanceof ThreadPoolExecutor pool) {
+            out.append("# HELP executor_queue_depth Requests waiting for a worker thread.\n");
+            out.append("# TYPE executor_queue_depth gauge\n");
+            out.append("executor_queue_depth ").append(pool.getQueue().size()).append('\n');
+            out.append("# HELP executor_active_threads Worker threads currently running a task.\n");
+            out.append("# TYPE executor_active_threads gauge\n");
+            out.append("executor_active_threads ").append(pool.getActiveCount()).append('\n');
+        }
+
+        Map<String, RequestMetrics> sortedHosts = new TreeMap<>(hosts);
+        out.append("# HELP http_requests_total Completed requests by virtual host and status.\n");
+        out.append("# TYPE http_requests_total counter\n");
+        sortedHosts.forEach((host, metrics) -> new TreeMap<>(metrics.getStatuses()).forEach((status, count) ->
+                out.append("http_requests_total{host=\"").append(escape(host)).append("\",status=\"")
+                        .append(status).append("\"} ").append(count.sum()).append('\n')));
+        out.append("# HELP http_response_bytes_total Response body bytes by virtual host.\n");
+        out.append("# TYPE http_response_bytes_total counter\n");
+        sortedHosts.forEach((host, metrics) ->
+                out.append("http_response_bytes_total{host=\"").append(escape(host)).append("\"} ")
+                        .append(metrics.getBytes()).append('\n'));
+        out.append("# HELP http_response_zero_copy_bytes_total Response body bytes sent with sendfile.\n");
+        out.append("# TYPE http_response_zero_copy_bytes_total counter\n");
+        out.append("http_response_zero_copy_bytes_total ").append(zeroCopyBytes.sum()).append('\n');
+        writeHistogram(out, "http_request_duration_seconds", "Request latency by virtual host.", "host", sortedHosts);
+
+        Map<String, RequestMetrics> sortedServlets = new TreeMap<>(servlets);
+        out.append("# HELP servlet_errors_total Servlet invocations that threw.\n");
+        out.append("# TYPE servlet_errors_total counter\n");
+        sortedServlets.forEach((route, metrics) ->
+                out.append("servlet_errors_total{route=\"").append(escape(route)).append("\"} ")
+                        .append(metrics.getErrors()).append('\n'));
+        writeHistogram(out, "servlet_duration_seconds", "Servlet service() latency by mapping.", "route",
+                sortedServlets);
+    }
+
+    private static void writeHistogram(StringBuilder out, String name, String help, String label,
+                                       Map<String, RequestMetrics> series) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(" histogram\n");
+        series.forEach((key, metrics) -> {
+            LatencyHistogram latency = metrics.getLatency();
+            String labelValue = escape(key);
+            for (int exponent = FIRST_BUCKET_EXPONENT; exponent <= LAST_BUCKET_EXPONENT; exponent++) {
+                out.append(name).append("_bucket{").append(label).append("=\"").append(labelValue)
+                        .append("\",le=\"").append(BUCKET_BOUNDS[exponent - FIRST_BUCKET_EXPONENT]).append("\"} ")
+                        .append(latency.countAtMostPowerOfTwo(exponent)).append('\n');
+            }
+            long count = latency.getCount();
+            out.append(name).append("_bucket{").append(label).append("=\"").append(labelValue)
+                    .append("\",le=\"+Inf\"} ").append(count).append('\n');
+            out.append(name).append("_sum{").append(label).append("=\"").append(labelValue).append("\"} ")
+                    .append(latency.getSumMicros() / 1e6).append('\n');
+            out.append(name).append("_count{").append(label).append("=\"").append(labelValue).append("\"} ")
+                    .append(count).append('\n');
+        });
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
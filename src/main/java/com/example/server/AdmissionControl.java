@@ -0,0 +1,126 @@
+package com.example.server;
+
+import com.example.config.Config;
+import com.example.metrics.ServerMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 과부하일 때 일을 쌓아 두지 않고 바로 거절한다.
+// 연결을 받을 때 전체 연결 수와 클라이언트 IP별 연결 수를 확인하고, 작업 큐가 가득 차면 거절 응답을 보낸다.
+// 거절 응답은 미리 만들어 둔 바이트를 한 번 쓰고 연결을 닫는 것이 전부다.
+@Slf4j
+public class AdmissionControl {
+    public enum Rejection {
+        MAX_CONNECTIONS("max_connections", 503, "Service Unavailable"),
+        CLIENT_LIMIT("client_limit", 429, "Too Many Requests"),
+        QUEUE_FULL("queue_full", 503, "Service Unavailable");
+
+        private final String reason;
+        private final int status;
+        private final String statusText;
+
+        Rejection(String reason, int status, String statusText) {
+            this.reason = reason;
+            this.status = status;
+            this.statusText = statusText;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+    }
+
+    private final int maxConnections;
+    private final int maxConnectionsPerIp;
+    private final ServerMetrics metrics;
+    private final AtomicInteger connections = new AtomicInteger();
+    private final Map<InetAddress, Integer> connectionsPerIp = new ConcurrentHashMap<>();
+    private final byte[][] responses = new byte[Rejection.values().length][];
+
+    public AdmissionControl(Config.AdmissionConfig config, ServerMetrics metrics) {
+        this.maxConnections = config.maxConnections();
+        this.maxConnectionsPerIp = config.maxConnectionsPerIp();
+        this.metrics = metrics;
+        for (Rejection rejection : Rejection.values()) {
+            String body = rejection.status + " " + rejection.statusText + "\n";
+            responses[rejection.ordinal()] = ("HTTP/1.1 " + rejection.status + " " + rejection.statusText + "\r\n" +
+                    "Retry-After: " + config.retryAfterSeconds() + "\r\n" +
+                    "Content-Type: text/plain; charset=UTF-8\r\n" +
+                    "Content-Length: " + body.length() + "\r\n" +
+                    "Connection: close\r\n\r\n" + body).getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    // 받아들이면 null. 이때 연결이 끝나면 반드시 release를 호출해야 한다.
+    public Rejection admit(InetAddress address) {
+        if (connections.incrementAndGet() > maxConnections) {
+            connections.decrementAndGet();
+            return Rejection.MAX_CONNECTIONS;
+        }
+        if (maxConnectionsPerIp > 0 && address != null) {
+            if (connectionsPerIp.merge(address, 1, Integer::sum) > maxConnectionsPerIp) {
+                releaseClient(address);
+                connections.decrementAndGet();
+                return Rejection.CLIENT_LIMIT;
+            }
+        }
+        return null;
+    }
+
+    public void release(InetAddress address) {
+        connections.decrementAndGet();
+        if (maxConnectionsPerIp > 0 && address != null) {
+            releaseClient(address);
+        }
+    }
+
+    // 0이 된 항목은 지워서 지나간 클라이언트가 맵에 쌓이지 않게 한다.
+    private void releaseClient(InetAddress address) {
+        connectionsPerIp.computeIfPresent(address, (key, count) -> count > 1 ? count - 1 : null);
+    }
+
+    public int getConnections() {
+        return connections.get();
+    }
+
+    // 블로킹 소켓: 거절 응답을 쓰고 닫는다. 이미 도착한 요청 바이트는 버려서 닫을 때 RST가 나가지 않게 한다.
+    public void reject(Socket socket, Rejection rejection) {
+        count(rejection);
+        try (socket) {
+            socket.getOutputStream().write(responses[rejection.ordinal()]);
+            socket.shutdownOutput();
+            InputStream in = socket.getInputStream();
+            in.skip(in.available());
+        } catch (IOException e) {
+            log.debug("Failed to send {} to rejected client: {}", rejection.status, e.getMessage());
+        }
+    }
+
+    // 채널: 이벤트 루프 스레드에서 불리므로 논블로킹으로 바꿔 한 번만 써 본다.
+    // 소켓 버퍼에 다 들어가지 않으면 나머지는 버리고 닫는다. 읽지 않는 클라이언트 때문에 루프가 멈추면 안 된다.
+    public void reject(SocketChannel channel, Rejection rejection) {
+        count(rejection);
+        try (channel) {
+            channel.configureBlocking(false);
+            channel.write(ByteBuffer.wrap(responses[rejection.ordinal()]));
+            channel.shutdownOutput();
+        } catch (IOException e) {
+            log.debug("Failed to send {} to rejected client: {}", rejection.status, e.getMessage());
+        }
+    }
+
+    private void count(Rejection rejection) {
+        metrics.recordRejected(rejection.getReason());
+        log.debug("Rejected connection: {}", rejection.getReason());
+    }
+}
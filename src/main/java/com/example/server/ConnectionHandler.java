@@ -0,0 +1,76 @@
+package com.example.server;
+
+import com.example.config.Config;
+import com.example.exception.WebServerException;
+import com.example.http.RequestReader;
+import com.example.http.SimpleHttpRequest;
+import com.example.http.TimedOutputStream;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+
+// 블로킹 커넥터: 연결 하나를 스레드 하나가 끝까지 처리한다.
+@Slf4j
+public class ConnectionHandler implements Runnable {
+    private final Socket clientSocket;
+    private final Config config;
+    private final RequestHandler requestHandler;
+    private final AdmissionControl admission;
+    private final WriteTimeoutWatchdog writeWatchdog;
+
+    public ConnectionHandler(Socket clientSocket, Config config, RequestHandler requestHandler,
+                             AdmissionControl admission, WriteTimeoutWatchdog writeWatchdog) {
+        this.clientSocket = clientSocket;
+        this.config = config;
+        this.requestHandler = requestHandler;
+        this.admission = admission;
+        this.writeWatchdog = writeWatchdog;
+    }
+
+    @Override
+    public void run() {
+        requestHandler.getMetrics().connectionOpened();
+        TimedOutputStream out = null;
+        try (Socket socket = clientSocket) {
+            Config.ConnectorConfig connector = config.getConnector();
+            SocketOptions.configure(socket, connector);
+            RequestReader reader = new RequestReader(socket.getInputStream(), config.getRequest());
+            reader.setTimeouts(socket::setSoTimeout, config.getKeepAlive().idleTimeoutMillis(),
+                    connector.headerTimeoutMillis(), connector.bodyTimeoutMillis());
+            out = writeWatchdog.register(new TimedOutputStream(new BufferedOutputStream(socket.getOutputStream())),
+                    socket);
+
+            int served = 0;
+            boolean reuse = true;
+            while (reuse) {
+                SimpleHttpRequest request;
+                try {
+                    request = reader.readRequest();
+                } catch (SocketTimeoutException e) {
+                    // 유휴 시간 초과
+                    break;
+                } catch (WebServerException e) {
+                    requestHandler.sendError(e, out);
+                    break;
+                }
+                if (request == null) {
+                    // 클라이언트가 연결을 닫음
+                    break;
+                }
+                request.setRemoteAddress(socket.getInetAddress());
+                reuse = requestHandler.handle(request, out, socket.getChannel(), ++served);
+            }
+        } catch (IOException e) {
+            log.error("Socket error: {}", e.getMessage());
+        } finally {
+            if (out != null) {
+                writeWatchdog.unregister(out);
+            }
+            requestHandler.getMetrics().connectionClosed();
+            admission.release(clientSocket.getInetAddress());
+        }
+    }
+}
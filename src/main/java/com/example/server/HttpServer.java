@@ -1,36 +1,144 @@
 package com.example.server;
 
 import com.example.config.Config;
+import com.example.metrics.ServerMetrics;
+import com.example.servlet.ServletRegistry;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.IOException;
-import java.net.ServerSocket;
+import java.net.InetAddress;
 import java.net.Socket;
+import java.nio.channels.ServerSocketChannel;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 public class HttpServer {
-    private static final int THREAD_POOL_SIZE = 10;
-    private final ServerSocket serverSocket;
+    private final List<ServerSocketChannel> serverChannels;
+    private final NioConnector nioConnector;
     private final ExecutorService executorService;
     private final Config config;
+    private final ServletRegistry servletRegistry;
+    private final RequestHandler requestHandler;
+    private final ServerMetrics metrics;
+    private final AdmissionControl admission;
+    private final WriteTimeoutWatchdog writeWatchdog;
     public volatile boolean isRunning;
 
     public HttpServer(Config config) throws IOException {
         this.config = config;
-        this.serverSocket = new ServerSocket(config.getPort());
-        this.executorService = Executors.newFixedThreadPool(THREAD_POOL_SIZE);
+        this.executorService = createExecutor(config.getExecutor());
+        // 서블릿의 init에서 이 서버의 계측값을 찾을 수 있도록 먼저 등록한다.
+        this.metrics = new ServerMetrics();
+        metrics.monitorExecutor(executorService);
+        ServerMetrics.setCurrent(metrics);
+        this.servletRegistry = ServletRegistry.load(config.getServlets(), config.getVirtualHosts().values());
+        this.requestHandler = new RequestHandler(config, servletRegistry, metrics);
+        this.admission = new AdmissionControl(config.getAdmission(), metrics);
+        this.writeWatchdog = new WriteTimeoutWatchdog(config.getConnector().writeTimeoutMillis(), metrics);
+        try {
+            if (config.getConnector().isNio()) {
+                this.serverChannels = List.of();
+                this.nioConnector = new NioConnector(config, requestHandler, executorService, admission,
+                        writeWatchdog);
+            } else {
+                // 채널로 받은 소켓이어야 getChannel()이 있어 파일을 transferTo(sendfile)로 보낼 수 있다.
+                this.serverChannels = SocketOptions.bindAll(config.getConnector(), config.getPort());
+                this.nioConnector = null;
+            }
+        } catch (IOException e) {
+            writeWatchdog.close();
+            executorService.shutdown();
+            requestHandler.close();
+            servletRegistry.destroy();
+            ServerMetrics.clearCurrent(metrics);
+            throw e;
+        }
         this.isRunning = true;
         log.info("Server started on port {}", config.getPort());
-        log.info("Thread pool size: {}", THREAD_POOL_SIZE);
+        log.info("Connector: {}, executor: {}", config.getConnector().type(), describeExecutor(config.getExecutor()));
+        log.info("Acceptors: {}, listening sockets: {}", config.getConnector().acceptors(),
+                nioConnector != null ? nioConnector.getListeners() : serverChannels.size());
+        log.info("Max connections: {}, per client: {}", config.getAdmission().maxConnections(),
+                config.getAdmission().maxConnectionsPerIp() > 0 ? config.getAdmission().maxConnectionsPerIp() : "unlimited");
+        if (nioConnector != null) {
+            log.info("Event loops: {}", config.getConnector().eventLoops());
+        }
+        log.info("Timeouts: header {} ms, body {} ms, write {} ms", config.getConnector().headerTimeoutMillis(),
+                config.getConnector().bodyTimeoutMillis(), config.getConnector().writeTimeoutMillis());
+    }
+
+    // 빌드는 Java 17을 유지하므로 가상 스레드 팩토리는 실행 시점에 찾는다.
+    private static ExecutorService createExecutor(Config.ExecutorConfig executorConfig) {
+        if (executorConfig.isVirtual()) {
+            try {
+                return (ExecutorService) Executors.class
+                        .getMethod("newVirtualThreadPerTaskExecutor")
+                        .invoke(null);
+            } catch (ReflectiveOperationException e) {
+                log.warn("Virtual threads require Java 21+, falling back to fixed pool of {} threads",
+                        executorConfig.size());
+            }
+        }
+        // 큐가 가득 차면 execute가 RejectedExecutionException을 던지고, 커넥터가 503으로 응답한다.
+        return new ThreadPoolExecutor(executorConfig.size(), executorConfig.size(), 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(executorConfig.queueCapacity()));
+    }
+
+    private String describeExecutor(Config.ExecutorConfig executorConfig) {
+        if (executorConfig.isVirtual() && !(executorService instanceof ThreadPoolExecutor)) {
+            return "virtual thread per task";
+        }
+        return "fixed pool of " + executorConfig.size() + " threads, queue of " + executorConfig.queueCapacity();
+    }
+
+    public ServerMetrics getMetrics() {
+        return metrics;
     }
 
+    // 실제로 bind된 포트 (설정 포트가 0이면 커널이 고른 임시 포트)
+    public int getLocalPort() throws IOException {
+        return nioConnector != null ? nioConnector.getLocalPort() : SocketOptions.localPort(serverChannels);
+    }
+
+    // 첫 번째 acceptor는 호출한 스레드에서 돌며, stop() 될 때까지 반환하지 않는다.
+    // 리스닝 소켓이 하나뿐이면 모든 acceptor가 그 소켓에서 accept한다.
     public void start() {
+        if (nioConnector != null) {
+            nioConnector.start();
+            return;
+        }
+        for (int i = 1; i < config.getConnector().acceptors(); i++) {
+            ServerSocketChannel serverChannel = serverChannels.get(i % serverChannels.size());
+            Thread thread = new Thread(() -> accept(serverChannel), "acceptor-" + i);
+            thread.start();
+        }
+        accept(serverChannels.get(0));
+    }
+
+    // accept 스레드는 받아들일지 정하고 넘기기만 한다. 소켓 설정과 요청 처리는 워커가 한다.
+    private void accept(ServerSocketChannel serverChannel) {
         while (isRunning) {
             try {
-                Socket clientSocket = serverSocket.accept();
-                executorService.execute(new RequestHandler(clientSocket, config));
+                Socket clientSocket = serverChannel.accept().socket();
+                InetAddress address = clientSocket.getInetAddress();
+                AdmissionControl.Rejection rejection = admission.admit(address);
+                if (rejection != null) {
+                    admission.reject(clientSocket, rejection);
+                    continue;
+                }
+                try {
+                    executorService.execute(new ConnectionHandler(clientSocket, config, requestHandler, admission,
+                            writeWatchdog));
+                } catch (RejectedExecutionException e) {
+                    admission.release(address);
+                    admission.reject(clientSocket, AdmissionControl.Rejection.QUEUE_FULL);
+                }
             } catch (IOException e) {
                 if (isRunning) {
                     log.error("Error accepting connection: {}", e.getMessage());
@@ -43,12 +151,22 @@ public class HttpServer {
     public void stop() {
         isRunning = false;
         try {
-            serverSocket.close();
+            if (nioConnector != null) {
+                nioConnector.stop();
+            } else {
+                for (ServerSocketChannel serverChannel : serverChannels) {
+                    serverChannel.close();
+                }
+            }
+            writeWatchdog.close();
             executorService.shutdown();
+            requestHandler.close();
+            servletRegistry.destroy();
+            ServerMetrics.clearCurrent(metrics);
             log.info("Server stopped");
         } catch (IOException e) {
             log.error("Error closing server socket: {}", e.getMessage());
             e.fillInStackTrace();
         }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,430 @@
+package com.example.server;
+
+import com.example.config.Config;
+import com.example.exception.WebServerException;
+import com.example.http.RequestReader;
+import com.example.http.SimpleHttpRequest;
+import com.example.http.TimedOutputStream;
+import com.example.metrics.ServerMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// NIO 커넥터: 헤더 수신과 유휴 연결은 이벤트 루프가 맡고,
+// 헤더가 모두 도착한 요청만 워커 스레드로 넘겨 블로킹 방식으로 처리한다.
+// 앞쪽 acceptors개의 이벤트 루프가 accept도 맡는다. 받은 채널의 설정은 그 채널을 맡을 이벤트 루프가 한다.
+@Slf4j
+public class NioConnector {
+    private static final long IDLE_CHECK_INTERVAL_MILLIS = 1000;
+    private static final long ACCEPT_BACKOFF_MILLIS = 100;
+    private static final byte[] REQUEST_TIMEOUT_RESPONSE = ("HTTP/1.1 408 Request Timeout\r\n" +
+            "Content-Length: 0\r\n" +
+            "Connection: close\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+
+    private final List<ServerSocketChannel> serverChannels;
+    private final Config config;
+    private final RequestHandler requestHandler;
+    private final ExecutorService workers;
+    private final AdmissionControl admission;
+    private final WriteTimeoutWatchdog writeWatchdog;
+    private final EventLoop[] eventLoops;
+    private final AtomicInteger nextLoop = new AtomicInteger();
+    private volatile boolean running;
+
+    public NioConnector(Config config, RequestHandler requestHandler, ExecutorService workers,
+                        AdmissionControl admission, WriteTimeoutWatchdog writeWatchdog) throws IOException {
+        this.config = config;
+        this.requestHandler = requestHandler;
+        this.workers = workers;
+        this.admission = admission;
+        this.writeWatchdog = writeWatchdog;
+        this.serverChannels = SocketOptions.bindAll(config.getConnector(), config.getPort());
+        try {
+            this.eventLoops = new EventLoop[config.getConnector().eventLoops()];
+            for (int i = 0; i < eventLoops.length; i++) {
+                eventLoops[i] = new EventLoop();
+            }
+            // 리스닝 채널이 하나면 여러 셀렉터에 같이 등록한다. 연결 하나에 여러 루프가 깨어나도 accept는 한 곳만 성공한다.
+            int acceptors = Math.max(serverChannels.size(),
+                    Math.min(config.getConnector().acceptors(), eventLoops.length));
+            for (ServerSocketChannel serverChannel : serverChannels) {
+                serverChannel.configureBlocking(false);
+            }
+            for (int i = 0; i < acceptors; i++) {
+                serverChannels.get(i % serverChannels.size())
+                        .register(eventLoops[i % eventLoops.length].selector, SelectionKey.OP_ACCEPT);
+            }
+        } catch (IOException e) {
+            for (ServerSocketChannel serverChannel : serverChannels) {
+                serverChannel.close();
+            }
+            throw e;
+        }
+        this.running = true;
+    }
+
+    // 첫 번째 이벤트 루프는 호출한 스레드에서 돌며, stop() 될 때까지 반환하지 않는다.
+    public void start() {
+        for (int i = 1; i < eventLoops.length; i++) {
+            Thread thread = new Thread(eventLoops[i], "nio-loop-" + i);
+            thread.start();
+        }
+        eventLoops[0].run();
+    }
+
+    public void stop() throws IOException {
+        running = false;
+        for (EventLoop eventLoop : eventLoops) {
+            eventLoop.selector.wakeup();
+        }
+        for (ServerSocketChannel serverChannel : serverChannels) {
+            serverChannel.close();
+        }
+    }
+
+    public int getListeners() {
+        return serverChannels.size();
+    }
+
+    public int getLocalPort() throws IOException {
+        return SocketOptions.localPort(serverChannels);
+    }
+
+    // accept하는 루프는 받아들일지만 정하고, 채널은 돌아가며 다른 루프에 넘긴다.
+    private void accept(ServerSocketChannel serverChannel) throws IOException {
+        SocketChannel channel;
+        while ((channel = serverChannel.accept()) != null) {
+            AdmissionControl.Rejection rejection = admission.admit(channel.socket().getInetAddress());
+            if (rejection != null) {
+                admission.reject(channel, rejection);
+                continue;
+            }
+            eventLoops[Math.floorMod(nextLoop.getAndIncrement(), eventLoops.length)].accepted(channel);
+        }
+    }
+
+    // 워커 스레드: 버퍼에 완성된 요청이 남아 있는 동안 처리하고, 연결을 이벤트 루프로 돌려보낸다.
+    private void serve(NioConnection connection) {
+        try {
+            boolean reuse = true;
+            try {
+                while (reuse && connection.reader.hasCompleteRequest()) {
+                    SimpleHttpRequest request = connection.reader.readRequest();
+                    request.setRemoteAddress(connection.address);
+                    reuse = requestHandler.handle(request, connection.out, connection.channel, ++connection.served);
+                }
+            } catch (WebServerException e) {
+                requestHandler.sendError(e, connection.out);
+                reuse = false;
+            }
+            if (reuse) {
+                connection.channel.configureBlocking(false);
+                connection.eventLoop.register(connection);
+            } else {
+                connection.close();
+            }
+        } catch (IOException e) {
+            log.error("Socket error: {}", e.getMessage());
+            connection.close();
+        } catch (RuntimeException e) {
+            // 닫지 않으면 소켓과 입장 슬롯, 활성 연결 수가 그대로 남는다.
+            log.error("Error serving connection: {}", e.getMessage(), e);
+            connection.close();
+        }
+    }
+
+    private class EventLoop implements Runnable {
+        private final Selector selector;
+        private final Queue<SocketChannel> accepted = new ConcurrentLinkedQueue<>();
+        private final Queue<NioConnection> pending = new ConcurrentLinkedQueue<>();
+        private final List<NioConnection> ready = new ArrayList<>();
+        private final List<SelectionKey> pausedAccepts = new ArrayList<>();
+        private long acceptResumeAt;
+        private long lastIdleCheck = System.currentTimeMillis();
+
+        EventLoop() throws IOException {
+            this.selector = Selector.open();
+        }
+
+        void accepted(SocketChannel channel) {
+            accepted.add(channel);
+            selector.wakeup();
+        }
+
+        void register(NioConnection connection) {
+            pending.add(connection);
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (running) {
+                    selector.select(pausedAccepts.isEmpty() ? IDLE_CHECK_INTERVAL_MILLIS : ACCEPT_BACKOFF_MILLIS);
+                    resumeAccepts();
+                    registerAccepted();
+                    registerPending();
+
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        if (!key.isValid()) {
+                            continue;
+                        }
+                        if (key.isAcceptable()) {
+                            try {
+                                accept((ServerSocketChannel) key.channel());
+                            } catch (IOException e) {
+                                log.error("Error accepting connection: {}", e.getMessage());
+                                pauseAccept(key);
+                            }
+                        } else if (key.isReadable()) {
+                            read(key);
+                        }
+                    }
+
+                    dispatchReady();
+                    closeIdleConnections();
+                }
+            } catch (IOException e) {
+                if (running) {
+                    log.error("Event loop error: {}", e.getMessage());
+                }
+            } finally {
+                closeAll();
+            }
+        }
+
+        // EMFILE처럼 곧바로 다시 실패할 오류에 루프가 헛돌지 않도록 잠시 accept를 멈춘다.
+        private void pauseAccept(SelectionKey key) {
+            if (key.isValid()) {
+                key.interestOps(0);
+                pausedAccepts.add(key);
+                acceptResumeAt = System.currentTimeMillis() + ACCEPT_BACKOFF_MILLIS;
+            }
+        }
+
+        private void resumeAccepts() {
+            if (pausedAccepts.isEmpty() || System.currentTimeMillis() < acceptResumeAt) {
+                return;
+            }
+            for (SelectionKey key : pausedAccepts) {
+                if (key.isValid()) {
+                    key.interestOps(SelectionKey.OP_ACCEPT);
+                }
+            }
+            pausedAccepts.clear();
+        }
+
+        private void registerAccepted() {
+            SocketChannel channel;
+            while ((channel = accepted.poll()) != null) {
+                NioConnection connection = null;
+                try {
+                    SocketOptions.configure(channel, config.getConnector());
+                    channel.configureBlocking(false);
+                    connection = new NioConnection(channel, this, config, requestHandler.getMetrics(),
+                            admission, writeWatchdog);
+                    requestHandler.getMetrics().connectionOpened();
+                    connection.lastActive = System.currentTimeMillis();
+                    channel.register(selector, SelectionKey.OP_READ, connection);
+                } catch (IOException e) {
+                    // 받자마자 끊긴 연결 하나 때문에 이벤트 루프가 멈추지 않게 한다.
+                    log.debug("Failed to set up connection: {}", e.getMessage());
+                    if (connection != null) {
+                        connection.close();
+                    } else {
+                        admission.release(channel.socket().getInetAddress());
+                        closeQuietly(channel);
+                    }
+                }
+            }
+        }
+
+        private void registerPending() {
+            NioConnection connection;
+            while ((connection = pending.poll()) != null) {
+                try {
+                    connection.lastActive = System.currentTimeMillis();
+                    // 워커가 다음 요청의 앞부분을 남겨 두었으면 지금부터 헤더 시간을 잰다.
+                    connection.headerStartedAt = connection.reader.isStarted() ? connection.lastActive : 0;
+                    connection.channel.register(selector, SelectionKey.OP_READ, connection);
+                } catch (IOException e) {
+                    connection.close();
+                }
+            }
+        }
+
+        private void read(SelectionKey key) {
+            NioConnection connection = (NioConnection) key.attachment();
+            try {
+                if (connection.reader.fill(connection.channel) < 0) {
+                    connection.close();
+                    return;
+                }
+                connection.lastActive = System.currentTimeMillis();
+                if (connection.reader.hasCompleteRequest()) {
+                    connection.headerStartedAt = 0;
+                    key.cancel();
+                    ready.add(connection);
+                } else if (connection.headerStartedAt == 0 && connection.reader.isStarted()) {
+                    connection.headerStartedAt = connection.lastActive;
+                }
+            } catch (WebServerException e) {
+                // 에러 응답은 워커가 보낸다. 파서는 같은 예외를 다시 던진다.
+                key.cancel();
+                ready.add(connection);
+            } catch (IOException e) {
+                connection.close();
+            } catch (RuntimeException e) {
+                // 연결 하나의 예상치 못한 오류로 이벤트 루프 전체가 멈추지 않게 한다.
+                log.error("Error reading from connection: {}", e.getMessage(), e);
+                connection.close();
+            }
+        }
+
+        // 취소한 키가 실제로 해제된 뒤에야 채널을 블로킹 모드로 바꿀 수 있다.
+        private void dispatchReady() throws IOException {
+            if (ready.isEmpty()) {
+                return;
+            }
+            selector.selectNow();
+            for (NioConnection connection : ready) {
+                try {
+                    connection.channel.configureBlocking(true);
+                    workers.execute(() -> serve(connection));
+                } catch (RejectedExecutionException e) {
+                    // 작업 큐가 가득 찼다. 기다리게 하지 않고 바로 503을 보낸다.
+                    admission.reject(connection.channel, AdmissionControl.Rejection.QUEUE_FULL);
+                    connection.close();
+                } catch (IOException e) {
+                    log.error("Failed to dispatch request: {}", e.getMessage());
+                    connection.close();
+                }
+            }
+            ready.clear();
+        }
+
+        private void closeIdleConnections() {
+            long now = System.currentTimeMillis();
+            if (now - lastIdleCheck < IDLE_CHECK_INTERVAL_MILLIS) {
+                return;
+            }
+            lastIdleCheck = now;
+            long idleTimeout = config.getKeepAlive().idleTimeoutMillis();
+            long headerTimeout = config.getConnector().headerTimeoutMillis();
+            for (SelectionKey key : selector.keys()) {
+                if (!(key.attachment() instanceof NioConnection connection)) {
+                    continue;
+                }
+                if (connection.headerStartedAt != 0 && now - connection.headerStartedAt > headerTimeout) {
+                    // 헤더를 조금씩 보내며 연결을 붙잡는 클라이언트 (slowloris)
+                    requestHandler.getMetrics().recordTimeout("header");
+                    connection.timeOut();
+                } else if (now - connection.lastActive > idleTimeout) {
+                    connection.close();
+                }
+            }
+        }
+
+        private void closeQuietly(SocketChannel channel) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.error("Error closing connection: {}", e.getMessage());
+            }
+        }
+
+        private void closeAll() {
+            SocketChannel channel;
+            while ((channel = accepted.poll()) != null) {
+                admission.release(channel.socket().getInetAddress());
+                closeQuietly(channel);
+            }
+            for (SelectionKey key : selector.keys()) {
+                if (key.attachment() instanceof NioConnection connection) {
+                    connection.close();
+                }
+            }
+            try {
+                selector.close();
+            } catch (IOException e) {
+                log.error("Error closing selector: {}", e.getMessage());
+            }
+        }
+    }
+
+    private static class NioConnection {
+        private final SocketChannel channel;
+        private final EventLoop eventLoop;
+        private final TimedOutputStream out;
+        private final RequestReader reader;
+        private final ServerMetrics metrics;
+        private final AdmissionControl admission;
+        private final WriteTimeoutWatchdog writeWatchdog;
+        private final InetAddress address;
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private int served;
+        private long lastActive;
+        private long headerStartedAt;
+
+        NioConnection(SocketChannel channel, EventLoop eventLoop, Config config, ServerMetrics metrics,
+                      AdmissionControl admission, WriteTimeoutWatchdog writeWatchdog) throws IOException {
+            this.channel = channel;
+            this.eventLoop = eventLoop;
+            this.metrics = metrics;
+            this.admission = admission;
+            this.writeWatchdog = writeWatchdog;
+            this.address = channel.socket().getInetAddress();
+            // 워커가 블로킹 모드로 바꾼 뒤에만 스트림으로 읽는다. 소켓 스트림이어야 SO_TIMEOUT(본문 시간 제한)이 걸린다.
+            this.reader = new RequestReader(channel.socket().getInputStream(), config.getRequest());
+            reader.setTimeouts(channel.socket()::setSoTimeout, config.getKeepAlive().idleTimeoutMillis(),
+                    config.getConnector().headerTimeoutMillis(), config.getConnector().bodyTimeoutMillis());
+            this.out = writeWatchdog.register(
+                    new TimedOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel))), channel);
+        }
+
+        // 이벤트 루프에서 호출되므로 408은 논블로킹으로 한 번만 써 본다.
+        void timeOut() {
+            try {
+                channel.write(ByteBuffer.wrap(REQUEST_TIMEOUT_RESPONSE));
+            } catch (IOException e) {
+                log.debug("Failed to send 408: {}", e.getMessage());
+            }
+            close();
+        }
+
+        void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            writeWatchdog.unregister(out);
+            metrics.connectionClosed();
+            admission.release(address);
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.error("Error closing connection: {}", e.getMessage());
+            }
+        }
+    }
+}
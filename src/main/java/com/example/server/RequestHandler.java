@@ -1,23 +1,39 @@
 package com.example.server;
 
+import com.example.cache.CachedResource;
+import com.example.cache.FileWatcher;
+import com.example.cache.PathResolutionCache;
+import com.example.cache.ResolvedPath;
+import com.example.cache.StaticResourceCache;
 import com.example.config.Config;
+import com.example.config.VirtualHost;
 import com.example.exception.ExceptionHandler;
 import com.example.exception.WebServerException;
+import com.example.http.ContentEncoding;
+import com.example.http.RequestBody;
 import com.example.http.SimpleHttpRequest;
 import com.example.http.SimpleHttpResponse;
-import com.example.servlet.ServletMapping;
+import com.example.log.AccessLog;
+import com.example.metrics.ServerMetrics;
+import com.example.servlet.ServletMatch;
+import com.example.servlet.ServletRegistry;
 import com.example.servlet.SimpleServlet;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.IOException;
-import java.net.Socket;
+import java.io.OutputStream;
+import java.net.SocketTimeoutException;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 @Slf4j
-public class RequestHandler implements Runnable {
+public class RequestHandler {
     private static final Map<String, String> CONTENT_TYPES = Map.of(
         ".html", "text/html; charset=UTF-8",
         ".css", "text/css",
@@ -26,129 +42,275 @@ public class RequestHandler implements Runnable {
         ".jpg", "image/jpeg",
         ".jpeg", "image/jpeg"
     );
-    private final Socket clientSocket;
+    // probeContentType는 파일 시스템 공급자를 거치므로 확장자별 결과를 기억해 둔다.
+    private static final Map<String, String> PROBED_CONTENT_TYPES = new ConcurrentHashMap<>();
     private final Config config;
+    private final ResponseHandler responseHandler;
     private final ExceptionHandler exceptionHandler;
-    private final ServletMapping servletMapping;
+    private final ServletRegistry servletRegistry;
+    private final Map<String, StaticResourceCache> staticCaches;
+    private final Map<String, PathResolutionCache> pathCaches;
+    private final FileWatcher fileWatcher;
+    private final AccessLog accessLog;
+    private final ServerMetrics metrics;
 
-    public RequestHandler(Socket clientSocket, Config config) {
-        this.clientSocket = clientSocket;
+    // 서버 단위로 하나만 만들어 모든 연결이 공유한다.
+    public RequestHandler(Config config, ServletRegistry servletRegistry, ServerMetrics metrics) {
         this.config = config;
-        ResponseHandler responseHandler = new ResponseHandler(config, null);
+        this.metrics = metrics;
+        this.responseHandler = new ResponseHandler(config, null);
         this.exceptionHandler = new ExceptionHandler(config, responseHandler);
-        this.servletMapping = new ServletMapping();
-        
-        // Load servlets from config
-        loadServlets();
+        this.servletRegistry = servletRegistry;
+        this.staticCaches = config.getVirtualHosts().values().stream()
+                .collect(Collectors.toUnmodifiableMap(
+                        VirtualHost::getName,
+                        host -> new StaticResourceCache(host.getName(), config.getStaticCache(), config.getCompression())));
+        this.pathCaches = config.getVirtualHosts().values().stream()
+                .collect(Collectors.toUnmodifiableMap(
+                        VirtualHost::getName,
+                        host -> new PathResolutionCache(host.getName(), host.getDocBase(), config.getPathCache())));
+        this.fileWatcher = watchDocBases();
+        this.accessLog = openAccessLog();
     }
 
-    private void loadServlets() {
-        log.info("Loading servlets from config...");
-        List<Config.ServletConfig> servletConfigs = config.getServlets();
-        log.info("Found {} servlet configurations", servletConfigs.size());
-        
-        for (Config.ServletConfig servletConfig : servletConfigs) {
+    private AccessLog openAccessLog() {
+        if (!config.getAccessLog().enabled()) {
+            return null;
+        }
+        try {
+            return new AccessLog(config.getAccessLog());
+        } catch (IOException e) {
+            log.warn("Access log disabled, cannot open {}: {}", config.getAccessLog().path(), e.getMessage());
+            return null;
+        }
+    }
+
+    // 문서 루트의 파일이 바뀌면 그 호스트의 경로 캐시와 정적 파일 캐시에서 해당 항목을 지우고,
+    // 에러 페이지가 바뀌었으면 다시 읽는다.
+    private FileWatcher watchDocBases() {
+        FileWatcher watcher;
+        try {
+            watcher = new FileWatcher();
+        } catch (IOException e) {
+            log.warn("File watching unavailable, caches rely on revalidation: {}", e.getMessage());
+            return null;
+        }
+        for (VirtualHost host : config.getVirtualHosts().values()) {
+            PathResolutionCache pathCache = pathCaches.get(host.getName());
+            StaticResourceCache staticCache = staticCaches.get(host.getName());
+            if (!Files.isDirectory(host.getDocBase())) {
+                continue;
+            }
             try {
-                log.info("Loading servlet: {} -> {}", servletConfig.name(), servletConfig.className());
-                log.info("URL patterns: {}", servletConfig.urlPatterns());
-                
-                Class<?> servletClass = Class.forName(servletConfig.className());
-                SimpleServlet servlet = (SimpleServlet) servletClass.getDeclaredConstructor().newInstance();
-                
-                for (String urlPattern : servletConfig.urlPatterns()) {
-                    String cleanPattern = urlPattern.replaceFirst("^/", "").replaceAll("/$", "");
-                    log.info("Adding mapping: '{}' -> {}", cleanPattern, servletConfig.name());
-                    servletMapping.addMapping(cleanPattern, servlet);
-                }
-            } catch (Exception e) {
-                log.error("Failed to load servlet {}: {}", servletConfig.name(), e.getMessage());
-                e.fillInStackTrace();
+                watcher.watch(host.getDocBase(),
+                        changed -> {
+                            pathCache.invalidate(changed);
+                            staticCache.invalidate(changed);
+                            exceptionHandler.onFileChanged(host, changed);
+                        },
+                        () -> {
+                            pathCache.invalidateAll();
+                            staticCache.invalidateAll();
+                            exceptionHandler.reload(host);
+                        });
+            } catch (IOException e) {
+                log.warn("Cannot watch {} for host {}: {}", host.getDocBase(), host.getName(), e.getMessage());
             }
         }
-        
-        log.info("Servlet loading completed. Current mappings: {}", servletMapping);
-    }
-
-    @Override
-    public void run() {
-        try (Socket socket = clientSocket;
-             SimpleHttpResponse response = new SimpleHttpResponse(socket.getOutputStream(), config, null)) {
-            
-            SimpleHttpRequest request = new SimpleHttpRequest(socket);
-            log.info("Request received - Method: {}, Path: {}, Host: {}", 
-                    request.getMethod(), request.getPath(), request.getHost());
-            
-            log.info("Current servlet mappings: {}", servletMapping);
-            
+        return watcher;
+    }
+
+    public Map<String, StaticResourceCache> getStaticCaches() {
+        return staticCaches;
+    }
+
+    public ServerMetrics getMetrics() {
+        return metrics;
+    }
+
+    public Map<String, PathResolutionCache> getPathCaches() {
+        return pathCaches;
+    }
+
+    public void close() {
+        if (accessLog != null) {
+            try {
+                accessLog.close();
+            } catch (IOException e) {
+                log.warn("Failed to close access log: {}", e.getMessage());
+            }
+        }
+        if (fileWatcher != null) {
             try {
-                handleRequest(request, response);
+                fileWatcher.close();
+            } catch (IOException e) {
+                log.warn("Failed to stop file watcher: {}", e.getMessage());
+            }
+        }
+    }
+
+    // 요청 하나를 처리하고 응답을 완료한다. 연결을 재사용할 수 있으면 true.
+    // channel은 채널 기반 연결일 때만 주어지며, 없으면 null이다.
+    public boolean handle(SimpleHttpRequest request, OutputStream out, WritableByteChannel channel, int served)
+            throws IOException {
+        long start = System.nanoTime();
+        Config.KeepAliveConfig keepAlive = config.getKeepAlive();
+        log.debug("Request received - Method: {}, Path: {}, Host: {}",
+                request.getMethod(), request.getPath(), request.getHost());
+
+        SimpleHttpResponse response = new SimpleHttpResponse(out, config, null);
+        response.setChannel(channel);
+        response.setAcceptEncoding(request.getHeader("Accept-Encoding"));
+        response.setChunkedSupported(!"HTTP/1.0".equals(request.getProtocol()));
+        response.setKeepAlive(keepAlive.enabled()
+                && request.isKeepAlive()
+                && served < keepAlive.maxRequestsPerConnection());
+        if (request.isExpectContinue()) {
+            request.getInputStream().expectContinue(out);
+        }
+        response.setBodySuppressed("HEAD".equals(request.getMethod()));
+
+        // 호스트는 요청마다 한 번만 찾고, 이후에는 미리 계산된 VirtualHost를 넘겨 쓴다.
+        // HTTP/1.1 요청에 Host 헤더가 없으면 defaultHost로 보내지 않고 400으로 응답한다.
+        VirtualHost host = request.getHost() == null && "HTTP/1.1".equals(request.getProtocol())
+                ? null
+                : config.resolveHost(request.getHost(), request.getPort());
+        try {
+            try {
+                handleRequest(request, response, host);
             } catch (Exception e) {
-                log.error("Request handling failed: {}", e.getMessage());
-                exceptionHandler.handleException(e, response, request.getHost());
+                // 404 같은 클라이언트 오류는 접근 로그에 남으므로 여기서는 디버그로만 남긴다.
+                if (e instanceof WebServerException we && we.getStatusCode() < 500) {
+                    log.debug("Request failed: {}", e.getMessage());
+                } else {
+                    log.error("Request handling failed: {}", e.getMessage());
+                }
+                if (response.isCommitted()) {
+                    // 이미 헤더가 나갔으므로 에러 페이지를 보낼 수 없다.
+                    return false;
+                }
+                if (e instanceof WebServerException we && we.getStatusCode() == 408) {
+                    // 본문을 끝까지 받지 못했으므로 남은 바이트를 버리고 연결을 재사용할 수 없다.
+                    response.setKeepAlive(false);
+                }
+                exceptionHandler.handleException(e, response, host);
+            }
+            // 서블릿이 읽지 않은 본문을 버려야 다음 요청을 읽을 수 있다.
+            if (response.isKeepAlive() && !request.getInputStream().drain(config.getRequest().maxDrainBytes())) {
+                response.setKeepAlive(false);
+            }
+            response.finish();
+            return response.isKeepAlive();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            metrics.recordRequest(host != null ? host.getName() : null,
+                    response.getStatus(), response.getBytesWritten(), elapsed);
+            if (response.getZeroCopyBytes() > 0) {
+                metrics.recordZeroCopy(response.getZeroCopyBytes());
+            }
+            if (accessLog != null) {
+                accessLog.log(request.getMethod(), request.getPath(), request.getProtocol(),
+                        host != null ? host.getName() : request.getHost(),
+                        response.getStatus(), response.getBytesWritten(), elapsed);
             }
-        } catch (IOException e) {
-            log.error("Socket error: {}", e.getMessage());
         }
     }
 
-    private void handleRequest(SimpleHttpRequest request, SimpleHttpResponse response) throws IOException {
-        String host = request.getHost();
+    // 요청 헤더를 해석하지 못했을 때(400/414/431) 에러 응답을 보낸다. 연결은 재사용하지 않는다.
+    public void sendError(WebServerException error, OutputStream out) throws IOException {
+        log.warn("Rejecting request: {}", error.getMessage());
+        if (error.getStatusCode() == 408) {
+            metrics.recordTimeout("header");
+        }
+        SimpleHttpResponse response = new SimpleHttpResponse(out, config, null);
+        response.setKeepAlive(false);
+        exceptionHandler.handleException(error, response, null);
+        response.finish();
+    }
+
+    private void handleRequest(SimpleHttpRequest request, SimpleHttpResponse response, VirtualHost host)
+            throws IOException {
         String path = request.getPath();
         
         // Host 검증
-        if (!config.isHostConfigured(host)) {
-            throw new WebServerException(400, "Invalid host: " + host);
+        if (host == null) {
+            throw new WebServerException(400, "Invalid host: " + request.getHost());
         }
 
-        SimpleServlet servlet = servletMapping.getServlet(path);
-        if (servlet != null) {
+        ServletMatch match = servletRegistry.match(host, path);
+        if (match != null) {
+            SimpleServlet servlet = match.servlet();
+            request.setPathParameters(match.pathParameters());
+            long servletStart = System.nanoTime();
+            boolean failed = true;
             try {
-                log.info("Handling servlet request: {} -> {}", path, servlet.getClass().getName());
+                log.debug("Handling servlet request: {} -> {}", path, servlet.getClass().getName());
                 servlet.service(request, response);
+                failed = false;
                 return;
+            } catch (WebServerException e) {
+                throw e;
+            } catch (RequestBody.PayloadTooLargeException e) {
+                throw new WebServerException(413, e.getMessage());
+            } catch (RequestBody.MalformedChunkException e) {
+                throw new WebServerException(400, e.getMessage());
+            } catch (SocketTimeoutException e) {
+                metrics.recordTimeout("body");
+                throw new WebServerException(408, "Request body not received within "
+                        + config.getConnector().bodyTimeoutMillis() + " ms");
             } catch (Exception e) {
                 log.error("Servlet execution failed: {}", e.getMessage());
                 throw new WebServerException(500, "Servlet execution failed: " + e.getMessage());
+            } finally {
+                metrics.recordServlet(match.pattern(), response.getStatus(), System.nanoTime() - servletStart, failed);
             }
         }
         
         // 보안 검사
-        if (isForbiddenPath(path)) {
+        if (config.isPathForbidden(path)) {
             throw new WebServerException(403, "Access forbidden: " + path);
         }
         
-        // 파일 처리
-        Path docBase = Path.of(config.getDocBase(host));
-        Path filePath = docBase.resolve(path.substring(1)).normalize();
-        
-        // 디렉터리 트래버설 방지
-        if (!isPathSafe(docBase, filePath)) {
-            log.warn("Directory traversal attempt detected - Host: {}, Path: {}", host, path);
+        // 파일 처리: 디렉터리 트래버설, 심볼릭 링크, 권한 검사 결과는 경로 캐시에 보관된다.
+        PathResolutionCache paths = pathCaches.get(host.getName());
+        ResolvedPath resolved = paths.resolve(path.substring(1));
+        if (resolved.isForbidden()) {
+            log.warn("Directory traversal attempt detected - Host: {}, Path: {}", host.getName(), path);
             throw new WebServerException(403, "Access denied: Path traversal attempt");
         }
-        
-        if (Files.exists(filePath)) {
-            if (Files.isDirectory(filePath)) {
-                serveWelcomeFile(response, host);
-            } else {
-                serveFile(response, filePath);
-            }
-        } else {
+        if (resolved.isMissing()) {
             throw new WebServerException(404, "File not found: " + path);
         }
+
+        StaticResourceCache cache = staticCaches.get(host.getName());
+        CachedResource cached = cache != null ? cache.get(resolved.file()) : null;
+        if (cached != null) {
+            sendCachedResource(request, response, host, resolved.file(), cached);
+            return;
+        }
+
+        if (resolved.isDirectory()) {
+            serveWelcomeFile(request, response, host, resolved.file());
+        } else {
+            serveFile(request, response, host, resolved);
+        }
     }
     
-    private void serveWelcomeFile(SimpleHttpResponse response, String host) throws IOException {
-        String welcomeFile = config.getWelcomeFile(host);
-        Path docBase = Path.of(config.getDocBase(host));
-        Path welcomeFilePath = docBase.resolve(welcomeFile);
+    private void serveWelcomeFile(SimpleHttpRequest request, SimpleHttpResponse response, VirtualHost host,
+                                  Path directory) throws IOException {
+        PathResolutionCache paths = pathCaches.get(host.getName());
+        ResolvedPath welcomeFile = paths.resolve(host.getWelcomeFile());
         
-        if (!Files.exists(welcomeFilePath)) {
-            createDefaultWelcomeFile(welcomeFilePath, host);
+        if (welcomeFile.isMissing()) {
+            createDefaultWelcomeFile(host.getWelcomeFilePath(), host.getName());
+            paths.invalidate(host.getWelcomeFilePath());
+            welcomeFile = paths.resolve(host.getWelcomeFile());
+        }
+        if (!welcomeFile.isFile()) {
+            throw new WebServerException(403, "Access denied: " + host.getWelcomeFile());
         }
         
-        response.setContentType("text/html; charset=UTF-8");
-        Files.copy(welcomeFilePath, response.getOutputStream());
+        serveResource(request, response, host, directory, welcomeFile, "text/html; charset=UTF-8");
     }
     
     private void createDefaultWelcomeFile(Path welcomeFilePath, String host) throws IOException {
@@ -178,68 +340,121 @@ public class RequestHandler implements Runnable {
         Files.writeString(welcomeFilePath, html);
     }
     
-    private void serveFile(SimpleHttpResponse response, Path filePath) throws IOException {
-        String contentType = determineContentType(filePath);
-        response.setContentType(contentType);
-        Files.copy(filePath, response.getOutputStream());
-    }
-    
-    private String determineContentType(Path filePath) {
-        return CONTENT_TYPES.entrySet().stream()
-                .filter(entry -> filePath.toString().endsWith(entry.getKey()))
-                .map(Map.Entry::getValue)
-                .findFirst()
-                .orElseGet(() -> {
-                    try {
-                        String probed = Files.probeContentType(filePath);
-                        return probed != null ? probed : "application/octet-stream";
-                    } catch (IOException e) {
-                        log.warn("Failed to probe content type for {}: {}", filePath, e.getMessage());
-                        return "application/octet-stream";
-                    }
-                });
-    }
-    
-    private boolean isForbiddenPath(String path) {
-        return config.isPathForbidden(path) ||
-               config.getSecurity().forbiddenExtensions().stream().anyMatch(path::endsWith) ||
-               config.getSecurity().forbiddenPaths().stream().anyMatch(path::equals);
+    private void serveFile(SimpleHttpRequest request, SimpleHttpResponse response, VirtualHost host,
+                           ResolvedPath file) throws IOException {
+        String contentType = determineContentType(file.file());
+        serveResource(request, response, host, file.file(), file, contentType);
     }
 
-    private boolean isPathSafe(Path docBase, Path requestedPath) {
-        // 1. 정규화된 경로가 docBase를 벗어나는지 확인
-        if (!requestedPath.startsWith(docBase)) {
-            return false;
+    // 작은 파일은 캐시에 올려 메모리에서 보내고, 큰 파일은 디스크에서 바로 보낸다.
+    private void serveResource(SimpleHttpRequest request, SimpleHttpResponse response, VirtualHost host,
+                               Path key, ResolvedPath resolved, String contentType) throws IOException {
+        Path file = resolved.file();
+        StaticResourceCache cache = staticCaches.get(host.getName());
+        if (cache != null && cache.isCacheable(resolved.size())) {
+            sendCachedResource(request, response, host, key, cache.load(key, file, contentType));
+            return;
         }
 
-        // 2. 심볼릭 링크 검사
-        try {
-            if (Files.isSymbolicLink(requestedPath)) {
-                Path realPath = requestedPath.toRealPath();
-                return realPath.startsWith(docBase);
+        long lastModified = resolved.lastModified();
+        String etag = CachedResource.etag(resolved.size(), lastModified);
+        String cacheControl = host.getCacheControl(file.getFileName().toString());
+
+        // 큰 파일은 실행 중에 압축하지 않고, 미리 압축된 형제 파일만 제공한다.
+        Map<String, ResolvedPath> precompressed = findPrecompressed(host, file);
+        if (!precompressed.isEmpty()) {
+            response.setHeader("Vary", "Accept-Encoding");
+            String encoding = ContentEncoding.negotiate(request.getHeader("Accept-Encoding"), precompressed.keySet());
+            if (encoding != null) {
+                // 미리 압축된 파일만 바뀌어도 ETag가 달라지도록 그 파일의 크기와 수정 시각을 쓴다.
+                ResolvedPath sibling = precompressed.get(encoding);
+                String siblingEtag = CachedResource.etag(sibling.size(), sibling.lastModified());
+                if (!responseHandler.checkNotModified(request, response,
+                        ContentEncoding.tagEtag(siblingEtag, encoding), lastModified, cacheControl)) {
+                    response.setHeader("Content-Encoding", encoding);
+                    responseHandler.sendFile(response, sibling, contentType);
+                }
+                return;
             }
-        } catch (IOException e) {
-            log.warn("Failed to resolve symbolic link: {}", e.getMessage());
-            return false;
         }
 
-        // 3. 상위 디렉터리 참조 검사
-        String normalizedPath = requestedPath.toString();
-        if (normalizedPath.contains("..") || normalizedPath.contains("~")) {
-            return false;
+        if (responseHandler.checkNotModified(request, response, etag, lastModified, cacheControl)
+                || responseHandler.sendRanges(request, response, file, contentType, etag, lastModified)) {
+            return;
         }
+        responseHandler.sendFile(response, resolved, contentType);
+    }
 
-        // 4. 파일 권한 검사
-        try {
-            if (Files.exists(requestedPath) && !Files.isReadable(requestedPath)) {
-                return false;
+    private Map<String, ResolvedPath> findPrecompressed(VirtualHost host, Path file) {
+        if (!config.getCompression().enabled()) {
+            return Map.of();
+        }
+        PathResolutionCache paths = pathCaches.get(host.getName());
+        String relativePath = host.getDocBase().relativize(file).toString();
+        Map<String, ResolvedPath> precompressed = new HashMap<>();
+        for (String encoding : List.of(ContentEncoding.BROTLI, ContentEncoding.GZIP)) {
+            ResolvedPath sibling = paths.resolve(relativePath + ContentEncoding.precompressedSuffix(encoding));
+            if (sibling.isFile()) {
+                precompressed.put(encoding, sibling);
             }
-        } catch (SecurityException e) {
-            log.warn("Security exception while checking file permissions: {}", e.getMessage());
-            return false;
         }
+        return precompressed;
+    }
+
+    private void sendCachedResource(SimpleHttpRequest request, SimpleHttpResponse response, VirtualHost host,
+                                    Path key, CachedResource resource) throws IOException {
+        String cacheControl = host.getCacheControl(resource.getSource().getFileName().toString());
 
-        return true;
+        String encoding = null;
+        if (!resource.getEncodings().isEmpty()) {
+            response.setHeader("Vary", "Accept-Encoding");
+            encoding = ContentEncoding.negotiate(request.getHeader("Accept-Encoding"), resource.getEncodings());
+        }
+        if (encoding != null) {
+            String etag = resource.getEtag(encoding);
+            if (!responseHandler.checkNotModified(request, response, etag, resource.getLastModified(), cacheControl)) {
+                byte[] encoded = staticCaches.get(host.getName()).getEncoded(key, resource, encoding);
+                response.setHeader("Content-Encoding", encoding);
+                responseHandler.sendBytes(response, resource.getContentType(), encoded);
+            }
+            return;
+        }
+
+        if (responseHandler.checkNotModified(
+                request, response, resource.getEtag(), resource.getLastModified(), cacheControl)
+                || responseHandler.sendRanges(request, response, resource)) {
+            return;
+        }
+        responseHandler.sendResource(response, resource);
+    }
+
+    static String determineContentType(Path filePath) {
+        String fileName = filePath.getFileName().toString();
+        int dot = fileName.lastIndexOf('.');
+        if (dot <= 0) {
+            return probeContentType(filePath);
+        }
+        String extension = fileName.substring(dot);
+        String contentType = CONTENT_TYPES.get(extension);
+        if (contentType != null) {
+            return contentType;
+        }
+        contentType = PROBED_CONTENT_TYPES.get(extension);
+        if (contentType == null) {
+            contentType = probeContentType(filePath);
+            PROBED_CONTENT_TYPES.putIfAbsent(extension, contentType);
+        }
+        return contentType;
+    }
+
+    private static String probeContentType(Path filePath) {
+        try {
+            String probed = Files.probeContentType(filePath);
+            return probed != null ? probed : "application/octet-stream";
+        } catch (IOException e) {
+            log.warn("Failed to probe content type for {}: {}", filePath, e.getMessage());
+            return "application/octet-stream";
+        }
     }
 
 } 
\ No newline at end of file
@@ -1,12 +1,25 @@
 package com.example.server;
 
+import com.example.cache.CachedResource;
+import com.example.cache.ResolvedPath;
 import com.example.config.Config;
+import com.example.exception.WebServerException;
+import com.example.http.ByteRange;
+import com.example.http.HttpDate;
+import com.example.http.SimpleHttpRequest;
 import com.example.http.SimpleHttpResponse;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Slf4j
 public class ResponseHandler {
@@ -18,13 +31,180 @@ public class ResponseHandler {
         this.host = host;
     }
 
-    public void sendFile(SimpleHttpResponse response, Path filePath, String contentType) throws IOException {
-        if (!Files.exists(filePath) || !Files.isRegularFile(filePath)) {
-            log.error("File not found: {}", filePath);
-            throw new IOException("File not found: " + filePath);
+    // 경로 캐시가 이미 파일임을 확인했으므로 다시 stat하지 않고 바로 연다.
+    // 그 사이에 지워졌으면 open이 NoSuchFileException을 던지고 404로 응답한다.
+    public void sendFile(SimpleHttpResponse response, ResolvedPath resolved, String contentType) throws IOException {
+        try (FileChannel file = open(resolved.file())) {
+            response.setContentType(contentType);
+            response.sendFile(file, 0, file.size());
         }
+    }
+
+    private static FileChannel open(Path filePath) throws IOException {
+        try {
+            return FileChannel.open(filePath, StandardOpenOption.READ);
+        } catch (NoSuchFileException e) {
+            throw new WebServerException(404, "File not found: " + filePath);
+        }
+    }
+
+    // 검증자(ETag, Last-Modified)와 Cache-Control을 붙이고, 조건부 요청이 일치하면 304로 응답한다.
+    // 304를 보냈으면 true를 돌려주며 호출자는 본문을 보내지 않아야 한다.
+    public boolean checkNotModified(SimpleHttpRequest request, SimpleHttpResponse response,
+                                    String etag, long lastModified, String cacheControl) {
+        response.setHeader("ETag", etag);
+        response.setHeader("Last-Modified", HttpDate.format(lastModified));
+        if (cacheControl != null) {
+            response.setHeader("Cache-Control", cacheControl);
+        }
+
+        String method = request.getMethod();
+        if (!"GET".equals(method) && !"HEAD".equals(method)) {
+            return false;
+        }
+        if (isNotModified(request, etag, lastModified)) {
+            response.setStatus(304, "Not Modified");
+            return true;
+        }
+        return false;
+    }
+
+    private boolean isNotModified(SimpleHttpRequest request, String etag, long lastModified) {
+        String ifNoneMatch = request.getHeader("If-None-Match");
+        if (ifNoneMatch != null) {
+            // If-None-Match가 있으면 If-Modified-Since는 무시한다 (RFC 9110 13.2.2).
+            return matchesAny(ifNoneMatch, etag);
+        }
+        long ifModifiedSince = HttpDate.parse(request.getHeader("If-Modified-Since"));
+        return ifModifiedSince >= 0 && lastModified / 1000 <= ifModifiedSince / 1000;
+    }
+
+    // 약한 비교: W/ 접두사는 무시한다.
+    private boolean matchesAny(String header, String etag) {
+        for (String candidate : header.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Range 요청이면 206(또는 416)으로 응답하고 true를 돌려준다.
+    public boolean sendRanges(SimpleHttpRequest request, SimpleHttpResponse response, CachedResource resource)
+            throws IOException {
+        response.setHeader("Accept-Ranges", "bytes");
+        byte[] content = resource.getContent();
+        return sendRanges(request, response, resource.getContentType(), content.length,
+                resource.getEtag(), resource.getLastModified(),
+                (out, position, count) -> out.write(content, (int) position, (int) count));
+    }
+
+    public boolean sendRanges(SimpleHttpRequest request, SimpleHttpResponse response, Path filePath,
+                              String contentType, String etag, long lastModified) throws IOException {
+        response.setHeader("Accept-Ranges", "bytes");
+        if (request.getHeader("Range") == null) {
+            return false;
+        }
+        // 필요한 구간만 위치 지정 전송으로 읽는다.
+        try (FileChannel file = open(filePath)) {
+            return sendRanges(request, response, contentType, file.size(), etag, lastModified,
+                    (out, position, count) -> response.transferFile(file, position, count));
+        }
+    }
+
+    private boolean sendRanges(SimpleHttpRequest request, SimpleHttpResponse response, String contentType,
+                               long length, String etag, long lastModified, SliceWriter sliceWriter)
+            throws IOException {
+        List<ByteRange> ranges = resolveRanges(request, length, etag, lastModified);
+        if (ranges == null) {
+            return false;
+        }
+
+        if (ranges.isEmpty()) {
+            response.setStatus(416, "Range Not Satisfiable");
+            response.setHeader("Content-Range", "bytes */" + length);
+            response.setContentLength(0);
+            return true;
+        }
+
+        response.setStatus(206, "Partial Content");
+        if (ranges.size() == 1) {
+            ByteRange range = ranges.get(0);
+            response.setContentType(contentType);
+            response.setHeader("Content-Range", range.toContentRange(length));
+            response.setContentLength(range.length());
+            sliceWriter.write(response.getOutputStream(), range.start(), range.length());
+            return true;
+        }
+
+        // multipart/byteranges: 전체 길이를 먼저 계산해 Content-Length로 보낸다.
+        String boundary = Long.toHexString(ThreadLocalRandom.current().nextLong());
+        List<byte[]> partHeaders = new ArrayList<>(ranges.size());
+        long bodyLength = 0;
+        for (ByteRange range : ranges) {
+            byte[] partHeader = ("\r\n--" + boundary + "\r\n"
+                    + "Content-Type: " + contentType + "\r\n"
+                    + "Content-Range: " + range.toContentRange(length) + "\r\n\r\n")
+                    .getBytes(StandardCharsets.ISO_8859_1);
+            partHeaders.add(partHeader);
+            bodyLength += partHeader.length + range.length();
+        }
+        byte[] closing = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.ISO_8859_1);
+        bodyLength += closing.length;
+
+        response.setContentType("multipart/byteranges; boundary=" + boundary);
+        response.setContentLength(bodyLength);
+        OutputStream out = response.getOutputStream();
+        for (int i = 0; i < ranges.size(); i++) {
+            ByteRange range = ranges.get(i);
+            out.write(partHeaders.get(i));
+            sliceWriter.write(out, range.start(), range.length());
+        }
+        out.write(closing);
+        return true;
+    }
+
+    // Range를 적용하지 않아야 하면 null
+    private List<ByteRange> resolveRanges(SimpleHttpRequest request, long length, String etag, long lastModified) {
+        String range = request.getHeader("Range");
+        if (range == null || !"GET".equals(request.getMethod())) {
+            return null;
+        }
+        String ifRange = request.getHeader("If-Range");
+        if (ifRange != null && !matchesIfRange(ifRange.trim(), etag, lastModified)) {
+            return null;
+        }
+        return ByteRange.parse(range, length);
+    }
+
+    // If-Range는 강한 비교만 허용한다.
+    private boolean matchesIfRange(String ifRange, String etag, long lastModified) {
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(etag);
+        }
+        long date = HttpDate.parse(ifRange);
+        return date >= 0 && date / 1000 == lastModified / 1000;
+    }
+
+    @FunctionalInterface
+    private interface SliceWriter {
+        void write(OutputStream out, long position, long count) throws IOException;
+    }
+
+    public void sendResource(SimpleHttpResponse response, CachedResource resource) throws IOException {
+        sendBytes(response, resource.getContentType(), resource.getContent());
+    }
 
+    public void sendBytes(SimpleHttpResponse response, String contentType, byte[] content) throws IOException {
         response.setContentType(contentType);
-        Files.copy(filePath, response.getOutputStream());
+        response.setContentLength(content.length);
+        response.getOutputStream().write(content);
     }
 } 
\ No newline at end of file
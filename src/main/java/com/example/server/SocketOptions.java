@@ -0,0 +1,91 @@
+package com.example.server;
+
+import com.example.config.Config;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketOption;
+import java.net.StandardSocketOptions;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+// connector 설정의 소켓 옵션을 두 커넥터에 같은 방식으로 적용한다.
+// 수신 버퍼는 받은 소켓이 물려받도록 bind 전에 리스닝 소켓에 건다 (64KB를 넘는 창 크기는 연결 전에 정해진다).
+@Slf4j
+final class SocketOptions {
+    private SocketOptions() {
+    }
+
+    // reusePort면 acceptor마다 같은 포트에 따로 bind해서 커널이 연결을 나눠 주게 하고,
+    // 아니면(또는 지원하지 않으면) 리스닝 채널 하나를 모든 acceptor가 같이 accept한다.
+    static List<ServerSocketChannel> bindAll(Config.ConnectorConfig connector, int port) throws IOException {
+        List<ServerSocketChannel> channels = new ArrayList<>();
+        try {
+            do {
+                ServerSocketChannel channel = ServerSocketChannel.open();
+                // port가 0이면 첫 채널이 받은 임시 포트에 나머지도 bind한다.
+                int bindPort = channels.isEmpty() ? port : localPort(channels);
+                channels.add(channel);
+                bind(channel, connector, bindPort);
+            } while (channels.size() < connector.acceptors()
+                    && separateListeners(connector, channels.get(0).supportedOptions()));
+        } catch (IOException e) {
+            closeAll(channels);
+            throw e;
+        }
+        return channels;
+    }
+
+    static int localPort(List<ServerSocketChannel> channels) throws IOException {
+        return ((InetSocketAddress) channels.get(0).getLocalAddress()).getPort();
+    }
+
+    private static boolean separateListeners(Config.ConnectorConfig connector, Set<SocketOption<?>> supported) {
+        return connector.reusePort() && supported.contains(StandardSocketOptions.SO_REUSEPORT);
+    }
+
+    private static void closeAll(List<? extends Closeable> listeners) {
+        for (Closeable listener : listeners) {
+            try {
+                listener.close();
+            } catch (IOException e) {
+                log.debug("Error closing listener: {}", e.getMessage());
+            }
+        }
+    }
+
+    static void bind(ServerSocketChannel channel, Config.ConnectorConfig connector, int port) throws IOException {
+        channel.setOption(StandardSocketOptions.SO_REUSEADDR, connector.reuseAddress());
+        if (connector.reusePort()) {
+            if (channel.supportedOptions().contains(StandardSocketOptions.SO_REUSEPORT)) {
+                channel.setOption(StandardSocketOptions.SO_REUSEPORT, true);
+            } else {
+                log.warn("SO_REUSEPORT is not supported on this platform, ignoring connector.reusePort");
+            }
+        }
+        if (connector.receiveBufferSize() > 0) {
+            channel.setOption(StandardSocketOptions.SO_RCVBUF, connector.receiveBufferSize());
+        }
+        channel.bind(new InetSocketAddress(port), connector.backlog());
+    }
+
+    static void configure(Socket socket, Config.ConnectorConfig connector) throws IOException {
+        socket.setTcpNoDelay(connector.tcpNoDelay());
+        if (connector.sendBufferSize() > 0) {
+            socket.setSendBufferSize(connector.sendBufferSize());
+        }
+    }
+
+    static void configure(SocketChannel channel, Config.ConnectorConfig connector) throws IOException {
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, connector.tcpNoDelay());
+        if (connector.sendBufferSize() > 0) {
+            channel.setOption(StandardSocketOptions.SO_SNDBUF, connector.sendBufferSize());
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.server;
+
+import com.example.http.TimedOutputStream;
+import com.example.metrics.ServerMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// 응답을 쓰다가 writeTimeoutMillis 넘게 막힌 연결을 닫는다 (읽지 않는 클라이언트가 워커를 붙잡지 못하게).
+// 연결마다 등록하고, 하나의 데몬 스레드가 주기적으로 훑는다.
+@Slf4j
+public class WriteTimeoutWatchdog implements Closeable {
+    private final Map<TimedOutputStream, Closeable> connections = new ConcurrentHashMap<>();
+    private final long timeoutNanos;
+    private final long intervalMillis;
+    private final ServerMetrics metrics;
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    public WriteTimeoutWatchdog(int writeTimeoutMillis, ServerMetrics metrics) {
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(writeTimeoutMillis);
+        this.intervalMillis = Math.max(10, Math.min(1000, writeTimeoutMillis / 4));
+        this.metrics = metrics;
+        this.thread = new Thread(this::run, "write-timeout-watchdog");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    // connection은 시간이 넘으면 닫을 소켓이나 채널
+    public TimedOutputStream register(TimedOutputStream out, Closeable connection) {
+        connections.put(out, connection);
+        return out;
+    }
+
+    public void unregister(TimedOutputStream out) {
+        connections.remove(out);
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                Thread.sleep(intervalMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+            long now = System.nanoTime();
+            connections.forEach((out, connection) -> {
+                if (out.isStalled(now, timeoutNanos) && connections.remove(out, connection)) {
+                    metrics.recordTimeout("write");
+                    log.debug("Closing connection stalled on write for more than {} ms",
+                            TimeUnit.NANOSECONDS.toMillis(timeoutNanos));
+                    try {
+                        connection.close();
+                    } catch (IOException e) {
+                        log.debug("Error closing stalled connection: {}", e.getMessage());
+                    }
+                }
+            });
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        thread.interrupt();
+    }
+}
@@ -11,7 +11,7 @@ import java.time.format.DateTimeFormatter;
 public class HelloServlet implements SimpleServlet {
     @Override
     public void service(SimpleHttpRequest request, SimpleHttpResponse response) throws Exception {
-        log.info("HelloServlet: Processing hello request");
+        log.debug("HelloServlet: Processing hello request");
         
         response.setContentType("text/html; charset=UTF-8");
         
@@ -72,12 +72,12 @@ public class HelloServlet implements SimpleServlet {
                     LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"))
                 );
             
-            log.info("HelloServlet: Writing response");
+            log.debug("HelloServlet: Writing response");
             writer.write(html);
             writer.flush();
-            log.info("HelloServlet: Response written and flushed");
+            log.debug("HelloServlet: Response written and flushed");
         }
         
-        log.info("HelloServlet: Response sent successfully");
+        log.debug("HelloServlet: Response sent successfully");
     }
 } 
\ No newline at end of file
@@ -2,39 +2,275 @@ package com.example.servlet;
 
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
+// 경로 세그먼트 단위 트라이로 서블릿을 찾는다. 우선순위는 서블릿 스펙을 따른다.
+//   1. 정확히 일치 (/time), 경로 변수 (/users/{id}) - 같은 자리에서는 리터럴 세그먼트가 우선
+//   2. 가장 긴 접두사 (/api/*)
+//   3. 확장자 (*.do)
+//   4. 기본 서블릿 (/)
+// 조회는 정규식이나 substring 없이 경로 문자열을 그대로 비교하며, 경로 변수가 없으면 할당하지 않는다.
 @Slf4j
 public class ServletMapping {
-    private final Map<String, SimpleServlet> servletMap = new HashMap<>();
+    private final Node root = new Node();
+    private final List<Route> extensionRoutes = new ArrayList<>();
+    private Route defaultRoute;
+    private final Map<String, SimpleServlet> patterns = new LinkedHashMap<>();
 
     public void addMapping(String urlPattern, SimpleServlet servlet) {
-        log.info("Adding servlet mapping - Pattern: '{}', Servlet: {}", urlPattern, servlet.getClass().getName());
-        servletMap.put(urlPattern, servlet);
+        String pattern = normalize(urlPattern);
+        log.info("Adding servlet mapping - Pattern: '{}', Servlet: {}", pattern, servlet.getClass().getName());
+        if (patterns.put(pattern, servlet) != null) {
+            log.warn("Servlet mapping '{}' is overridden by {}", pattern, servlet.getClass().getName());
+        }
+
+        if (pattern.equals("/")) {
+            defaultRoute = new Route(pattern, servlet, List.of());
+        } else if (pattern.startsWith("*.")) {
+            extensionRoutes.removeIf(route -> route.pattern.equals(pattern));
+            extensionRoutes.add(new Route(pattern, servlet, List.of()));
+        } else if (pattern.endsWith("/*")) {
+            Node node = insert(pattern.substring(0, pattern.length() - 2), false);
+            node.prefix = new Route(pattern, servlet, List.of());
+        } else {
+            List<String> segments = segments(pattern);
+            Node node = insert(pattern, true);
+            node.exact = new Route(pattern, servlet, segments);
+        }
+    }
+
+    // 앞의 '/'를 붙이고 끝의 '/'는 뗀다. ("hello" -> "/hello", "/api/" -> "/api")
+    private static String normalize(String urlPattern) {
+        String pattern = urlPattern.trim();
+        if (pattern.startsWith("*.")) {
+            return pattern;
+        }
+        if (!pattern.startsWith("/")) {
+            pattern = "/" + pattern;
+        }
+        if (pattern.length() > 1 && pattern.endsWith("/")) {
+            pattern = pattern.substring(0, pattern.length() - 1);
+        }
+        return pattern;
+    }
+
+    private Node insert(String path, boolean allowParameters) {
+        Node node = root;
+        for (String segment : segments(path)) {
+            if (isParameter(segment)) {
+                if (!allowParameters) {
+                    throw new IllegalArgumentException("Path parameters are not allowed in prefix pattern: " + path);
+                }
+                if (node.parameter == null) {
+                    node.parameter = new Node();
+                }
+                node = node.parameter;
+            } else {
+                node = node.child(segment);
+            }
+        }
+        return node;
+    }
+
+    private static List<String> segments(String path) {
+        List<String> segments = new ArrayList<>();
+        if (path.isEmpty() || path.equals("/")) {
+            return segments;
+        }
+        int start = 1;
+        while (true) {
+            int end = path.indexOf('/', start);
+            if (end == -1) {
+                segments.add(path.substring(start));
+                return segments;
+            }
+            segments.add(path.substring(start, end));
+            start = end + 1;
+        }
+    }
+
+    private static boolean isParameter(String segment) {
+        return segment.length() > 2 && segment.startsWith("{") && segment.endsWith("}");
     }
 
     public SimpleServlet getServlet(String path) {
-        String cleanPath = path.replaceFirst("^/", "").split("\\?")[0];
-        log.info("Looking for servlet mapping for path: '{}'", cleanPath);
-        log.info("Available mappings: {}", servletMap.keySet());
-        
-        SimpleServlet servlet = servletMap.get(cleanPath);
-        if (servlet != null) {
-            log.info("Found servlet mapping for path: '{}'", cleanPath);
-            return servlet;
+        ServletMatch match = match(path);
+        return match != null ? match.servlet() : null;
+    }
+
+    public ServletMatch match(String path) {
+        if (path.isEmpty() || path.charAt(0) != '/') {
+            return null;
+        }
+        Route route = matchExact(root, path, 0);
+        if (route == null) {
+            route = matchPrefix(path);
+        }
+        if (route == null) {
+            route = matchExtension(path);
         }
+        if (route == null) {
+            route = defaultRoute;
+        }
+        return route != null ? route.toMatch(path) : null;
+    }
 
-        log.info("No servlet mapping found for path: '{}'", cleanPath);
+    // pos는 '/' 위치이거나 경로 끝이다.
+    private Route matchExact(Node node, String path, int pos) {
+        if (pos == path.length()) {
+            return node.exact;
+        }
+        int start = pos + 1;
+        int end = segmentEnd(path, start);
+        Node child = node.find(path, start, end);
+        if (child != null) {
+            Route route = matchExact(child, path, end);
+            if (route != null) {
+                return route;
+            }
+        }
+        if (node.parameter != null && end > start) {
+            return matchExact(node.parameter, path, end);
+        }
+        return null;
+    }
+
+    // 리터럴 세그먼트를 따라 내려가며 가장 깊은 접두사 패턴을 고른다.
+    private Route matchPrefix(String path) {
+        Node node = root;
+        Route longest = root.prefix;
+        int pos = 0;
+        while (pos < path.length()) {
+            int start = pos + 1;
+            int end = segmentEnd(path, start);
+            node = node.find(path, start, end);
+            if (node == null) {
+                break;
+            }
+            if (node.prefix != null) {
+                longest = node.prefix;
+            }
+            pos = end;
+        }
+        return longest;
+    }
+
+    // 마지막 세그먼트의 확장자로 찾는다.
+    private Route matchExtension(String path) {
+        int lastSlash = path.lastIndexOf('/');
+        for (Route route : extensionRoutes) {
+            int extensionLength = route.pattern.length() - 1;
+            int dot = path.length() - extensionLength;
+            if (dot > lastSlash && path.regionMatches(dot, route.pattern, 1, extensionLength)) {
+                return route;
+            }
+        }
         return null;
     }
 
+    private static int segmentEnd(String path, int start) {
+        int end = path.indexOf('/', start);
+        return end == -1 ? path.length() : end;
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder("ServletMapping{");
-        servletMap.forEach((pattern, servlet) -> 
+        patterns.forEach((pattern, servlet) ->
             sb.append("\n  ").append(pattern).append(" -> ").append(servlet.getClass().getName()));
         sb.append("\n}");
         return sb.toString();
     }
-} 
\ No newline at end of file
+
+    private static class Node {
+        // 자식 세그먼트는 해시를 먼저 비교하고 같을 때만 문자열을 비교한다.
+        private String[] segments = new String[0];
+        private int[] hashes = new int[0];
+        private Node[] children = new Node[0];
+        private Node parameter;
+        private Route exact;
+        private Route prefix;
+
+        Node child(String segment) {
+            Node existing = find(segment, 0, segment.length());
+            if (existing != null) {
+                return existing;
+            }
+            int size = children.length;
+            segments = Arrays.copyOf(segments, size + 1);
+            hashes = Arrays.copyOf(hashes, size + 1);
+            children = Arrays.copyOf(children, size + 1);
+            segments[size] = segment;
+            hashes[size] = segment.hashCode();
+            children[size] = new Node();
+            return children[size];
+        }
+
+        Node find(String path, int start, int end) {
+            int length = end - start;
+            int hash = 0;
+            for (int i = start; i < end; i++) {
+                hash = 31 * hash + path.charAt(i);
+            }
+            for (int i = 0; i < children.length; i++) {
+                String segment = segments[i];
+                if (hashes[i] == hash && segment.length() == length
+                        && path.regionMatches(start, segment, 0, length)) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+    }
+
+    private static class Route {
+        private final String pattern;
+        private final SimpleServlet servlet;
+        // 경로 변수 이름과 몇 번째 세그먼트인지
+        private final String[] parameterNames;
+        private final int[] parameterSegments;
+        private final ServletMatch staticMatch;
+
+        Route(String pattern, SimpleServlet servlet, List<String> segments) {
+            this.pattern = pattern;
+            this.servlet = servlet;
+            List<String> names = new ArrayList<>();
+            List<Integer> indexes = new ArrayList<>();
+            for (int i = 0; i < segments.size(); i++) {
+                String segment = segments.get(i);
+                if (isParameter(segment)) {
+                    names.add(segment.substring(1, segment.length() - 1));
+                    indexes.add(i);
+                }
+            }
+            this.parameterNames = names.toArray(new String[0]);
+            this.parameterSegments = indexes.stream().mapToInt(Integer::intValue).toArray();
+            this.staticMatch = parameterNames.length == 0 ? new ServletMatch(servlet, pattern, Map.of()) : null;
+        }
+
+        ServletMatch toMatch(String path) {
+            if (staticMatch != null) {
+                return staticMatch;
+            }
+            Map<String, String> parameters = new HashMap<>();
+            int segment = 0;
+            int next = 0;
+            int start = 1;
+            while (next < parameterSegments.length) {
+                int end = segmentEnd(path, start);
+                if (segment == parameterSegments[next]) {
+                    parameters.put(parameterNames[next], path.substring(start, end));
+                    next++;
+                }
+                segment++;
+                start = end + 1;
+            }
+            return new ServletMatch(servlet, pattern, Map.copyOf(parameters));
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.servlet;
+
+import java.util.Map;
+
+// 요청 경로에 맞는 서블릿과, 패턴의 {name} 자리에서 꺼낸 경로 변수
+public record ServletMatch(SimpleServlet servlet, String pattern, Map<String, String> pathParameters) {
+}
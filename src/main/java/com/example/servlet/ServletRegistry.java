@@ -0,0 +1,120 @@
+package com.example.servlet;
+
+import com.example.config.Config;
+import com.example.config.VirtualHost;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+public class ServletRegistry {
+    private final ServletMapping servletMapping;
+    // 호스트 이름 -> 그 호스트에만 등록된 서블릿 매핑
+    private final Map<String, ServletMapping> hostMappings;
+    private final List<SimpleServlet> servlets;
+    private final Map<String, String> failures;
+
+    private ServletRegistry(ServletMapping servletMapping, Map<String, ServletMapping> hostMappings,
+                            List<SimpleServlet> servlets, Map<String, String> failures) {
+        this.servletMapping = servletMapping;
+        this.hostMappings = Map.copyOf(hostMappings);
+        this.servlets = Collections.unmodifiableList(servlets);
+        this.failures = Collections.unmodifiableMap(failures);
+    }
+
+    public static ServletRegistry load(List<Config.ServletConfig> servletConfigs) {
+        return load(servletConfigs, List.of());
+    }
+
+    public static ServletRegistry load(List<Config.ServletConfig> servletConfigs, Collection<VirtualHost> hosts) {
+        ServletMapping servletMapping = new ServletMapping();
+        Map<String, ServletMapping> hostMappings = new HashMap<>();
+        List<SimpleServlet> servlets = new ArrayList<>();
+        Map<String, String> failures = new LinkedHashMap<>();
+
+        register(servletConfigs, servletMapping, servlets, failures, "");
+        int configured = servletConfigs.size();
+        for (VirtualHost host : hosts) {
+            if (host.getServlets().isEmpty()) {
+                continue;
+            }
+            ServletMapping hostMapping = new ServletMapping();
+            register(host.getServlets(), hostMapping, servlets, failures, host.getName() + "/");
+            hostMappings.put(host.getName(), hostMapping);
+            configured += host.getServlets().size();
+        }
+
+        ServletRegistry registry = new ServletRegistry(servletMapping, hostMappings, servlets, failures);
+        registry.report(configured);
+        return registry;
+    }
+
+    private static void register(List<Config.ServletConfig> servletConfigs, ServletMapping servletMapping,
+                                 List<SimpleServlet> servlets, Map<String, String> failures, String prefix) {
+        for (Config.ServletConfig servletConfig : servletConfigs) {
+            try {
+                Class<?> servletClass = Class.forName(servletConfig.className());
+                SimpleServlet servlet = (SimpleServlet) servletClass.getDeclaredConstructor().newInstance();
+                servlet.init(servletConfig);
+                servlets.add(servlet);
+
+                for (String urlPattern : servletConfig.urlPatterns()) {
+                    servletMapping.addMapping(urlPattern, servlet);
+                }
+            } catch (Exception | LinkageError e) {
+                failures.put(prefix + servletConfig.name(), e.getClass().getSimpleName() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private void report(int configured) {
+        log.info("Servlet registry initialized: {} of {} servlets loaded", servlets.size(), configured);
+        failures.forEach((name, reason) -> log.error("Failed to load servlet {}: {}", name, reason));
+    }
+
+    public SimpleServlet getServlet(String path) {
+        return servletMapping.getServlet(path);
+    }
+
+    public ServletMatch match(String path) {
+        return servletMapping.match(path);
+    }
+
+    // 호스트 전용 매핑에서 먼저 찾고, 없으면 전역 매핑에서 찾는다.
+    public ServletMatch match(VirtualHost host, String path) {
+        ServletMapping hostMapping = host != null ? hostMappings.get(host.getName()) : null;
+        if (hostMapping != null) {
+            ServletMatch match = hostMapping.match(path);
+            if (match != null) {
+                return match;
+            }
+        }
+        return servletMapping.match(path);
+    }
+
+    public Map<String, String> getFailures() {
+        return failures;
+    }
+
+    public void destroy() {
+        for (int i = servlets.size() - 1; i >= 0; i--) {
+            SimpleServlet servlet = servlets.get(i);
+            try {
+                servlet.destroy();
+            } catch (RuntimeException e) {
+                log.error("Failed to destroy servlet {}: {}", servlet.getClass().getName(), e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return servletMapping.toString();
+    }
+}
@@ -1,8 +1,17 @@
 package com.example.servlet;
 
+import com.example.config.Config;
 import com.example.http.SimpleHttpRequest;
 import com.example.http.SimpleHttpResponse;
 
 public interface SimpleServlet {
+    // 서버 시작 시 한 번 호출된다. 서블릿 인스턴스는 모든 요청 스레드가 공유한다.
+    default void init(Config.ServletConfig servletConfig) throws Exception {
+    }
+
     void service(SimpleHttpRequest request, SimpleHttpResponse response) throws Exception;
-} 
\ No newline at end of file
+
+    // 서버 종료 시 한 번 호출된다.
+    default void destroy() {
+    }
+}
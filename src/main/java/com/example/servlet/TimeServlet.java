@@ -13,11 +13,11 @@ import java.time.format.DateTimeFormatter;
 public class TimeServlet implements SimpleServlet {
     @Override
     public void service(SimpleHttpRequest request, SimpleHttpResponse response) throws Exception {
-        log.info("TimeServlet: Processing time request");
+        log.debug("TimeServlet: Processing time request");
 
         String error = request.getQueryString();
         if (error != null && error.contains("error=true")) {
-            log.info("TimeServlet: Simulating error");
+            log.debug("TimeServlet: Simulating error");
             throw new Exception("500 에러 테스트");
         }
         
@@ -48,6 +48,6 @@ public class TimeServlet implements SimpleServlet {
             writer.flush();
         }
         
-        log.info("TimeServlet: Response sent with time: {}", time);
+        log.debug("TimeServlet: Response sent with time: {}", time);
     }
 } 
\ No newline at end of file
@@ -11,7 +11,7 @@ import java.time.format.DateTimeFormatter;
 public class HelloServlet implements com.example.servlet.SimpleServlet {
     @Override
     public void service(SimpleHttpRequest request, SimpleHttpResponse response) throws Exception {
-        log.info("ServiceHelloServlet: Processing hello request");
+        log.debug("ServiceHelloServlet: Processing hello request");
         
         response.setContentType("text/html; charset=UTF-8");
         
@@ -72,12 +72,12 @@ public class HelloServlet implements com.example.servlet.SimpleServlet {
                     LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"))
                 );
             
-            log.info("ServiceHelloServlet: Writing response");
+            log.debug("ServiceHelloServlet: Writing response");
             writer.write(html);
             writer.flush();
-            log.info("ServiceHelloServlet: Response written and flushed");
+            log.debug("ServiceHelloServlet: Response written and flushed");
         }
         
-        log.info("ServiceHelloServlet: Response sent successfully");
+        log.debug("ServiceHelloServlet: Response sent successfully");
     }
 } 
\ No newline at end of file
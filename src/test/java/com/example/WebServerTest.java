@@ -2,29 +2,44 @@ package com.example;
 
 import com.example.config.Config;
 import com.example.server.HttpServer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.junit.After;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import java.io.BufferedReader;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.net.Socket;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
 
 import static org.junit.Assert.*;
 
 public class WebServerTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     private HttpServer server;
     private Config config;
     private ExecutorService executorService;
+    private final List<HttpServer> extraServers = new ArrayList<>();
 
     @Before
     public void setUp() throws Exception {
-        config = Config.load("server-config.json");
+        config = loadConfig(root -> { });
         server = new HttpServer(config);
         executorService = Executors.newSingleThreadExecutor();
         executorService.submit(() -> {
@@ -40,6 +55,9 @@ public class WebServerTest {
 
     @After
     public void tearDown() throws Exception {
+        for (HttpServer extra : extraServers) {
+            extra.stop();
+        }
         if (server != null && server.isRunning) {
             server.stop();
             executorService.shutdown();
@@ -125,6 +143,26 @@ public class WebServerTest {
         assertEquals("webapp/www/example", config.getDocBase("example.com"));
     }
 
+    @Test
+    public void testVirtualHostResolution() throws Exception {
+        assertEquals("example.com", config.resolveHost("EXAMPLE.COM", 80).getName());
+        assertEquals(Path.of("webapp/www/example"), config.resolveHost("example.com", 8080).getDocBase());
+        // 등록되지 않은 호스트는 defaultHost로 간다.
+        assertEquals("localhost", config.resolveHost("unknown.org", 80).getName());
+        assertEquals("localhost", config.resolveHost(null, 80).getName());
+
+        // "이름:포트"로 등록한 호스트는 포트까지 맞을 때 우선한다.
+        Config portConfig = new ObjectMapper().readValue("""
+                {"port": 8080, "hosts": [
+                  {"name": "a.com", "httpRoot": "webapp/www/a"},
+                  {"name": "a.com:8443", "httpRoot": "webapp/www/a-secure"}
+                ]}
+                """, Config.class);
+        assertEquals("a.com:8443", portConfig.resolveHost("A.com", 8443).getName());
+        assertEquals("a.com", portConfig.resolveHost("a.com", 80).getName());
+        assertNull("Without defaultHost unknown hosts are rejected", portConfig.resolveHost("b.com", 80));
+    }
+
     @Test
     public void testErrorHandling() throws Exception {
         // 404 테스트
@@ -164,6 +202,47 @@ public class WebServerTest {
         }
     }
 
+    @Test
+    public void testCustomErrorPage() throws Exception {
+        // test.com 의 httpRoot(webapp/www/test) 아래 에러 페이지를 사용한다.
+        long length = Files.size(Path.of("webapp/www/test/error/404.html"));
+        try (Socket socket = new Socket("localhost", config.getPort())) {
+            String request = "GET /nonexistent HTTP/1.1\r\n" +
+                           "Host: test.com\r\n" +
+                           "Connection: close\r\n\r\n";
+            sendRequest(socket, request);
+            String response = readResponse(socket);
+            assertTrue(response.startsWith("HTTP/1.1 404 Not Found"));
+            assertTrue("Custom error page should be served", response.contains("error-container"));
+            assertTrue(response.contains("Content-Length: " + length));
+        }
+    }
+
+    @Test
+    public void testMetrics() throws Exception {
+        try (Socket socket = new Socket("localhost", config.getPort())) {
+            sendRequest(socket, "GET /hello HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n");
+            readResponse(socket);
+        }
+        try (Socket socket = new Socket("localhost", config.getPort())) {
+            String request = "GET /metrics HTTP/1.1\r\n" +
+                           "Host: localhost\r\n" +
+                           "Connection: close\r\n\r\n";
+            sendRequest(socket, request);
+            String response = readResponse(socket);
+            assertTrue(response.startsWith("HTTP/1.1 200 OK"));
+            assertTrue(headerValue(response, "Content-Type").startsWith("text/plain; version=0.0.4"));
+            assertTrue(response.contains("http_requests_total{host=\"localhost\",status=\"200\"}"));
+            assertTrue(response.contains("servlet_duration_seconds_count{route=\"/hello\"}"));
+            assertTrue(response.contains("http_connections_active "));
+        }
+        // 다른 가상 호스트에는 매핑되어 있지 않다.
+        try (Socket socket = new Socket("localhost", config.getPort())) {
+            sendRequest(socket, "GET /metrics HTTP/1.1\r\nHost: example.com\r\nConnection: close\r\n\r\n");
+            assertTrue(readResponse(socket).startsWith("HTTP/1.1 404"));
+        }
+    }
+
     @Test
     public void testSecurityRules() throws Exception {
         // .exe 파일 접근 테스트
@@ -195,6 +274,305 @@ public class WebServerTest {
         }
     }
 
+    @Test
+    public void testKeepAlive() throws Exception {
+        // 하나의 연결로 두 요청을 보내고, 두 번째 요청에서 연결 종료
+        try (Socket socket = new Socket("localhost", config.getPort())) {
+            String request = "GET /time HTTP/1.1\r\n" +
+                           "Host: localhost\r\n\r\n" +
+                           "GET / HTTP/1.1\r\n" +
+                           "Host: localhost\r\n" +
+                           "Connection: close\r\n\r\n";
+            sendRequest(socket, request);
+            String response = readResponse(socket);
+            assertEquals("Both responses should arrive on one connection",
+                    2, response.split("HTTP/1.1 200 OK", -1).length - 1);
+            assertTrue("Response should be framed with Content-Length", response.contains("Content-Length: "));
+            assertTrue("First response should keep the connection open", response.contains("Connection: keep-alive"));
+            assertTrue("Last response should close the connection", response.contains("Connection: close"));
+        }
+    }
+
+    @Test
+    public void testMalformedRequest() throws Exception {
+        try (Socket socket = new Socket("localhost", config.getPort())) {
+            sendRequest(socket, "GARBAGE\r\n\r\n");
+            String response = readResponse(socket);
+            assertTrue("Malformed request line should return 400", response.startsWith("HTTP/1.1 400"));
+        }
+
+        // 헤더 개수 한도를 넘으면 431
+        StringBuilder request = new StringBuilder("GET / HTTP/1.1\r\nHost: localhost\r\n");
+        for (int i = 0; i <= config.getRequest().maxHeaderCount(); i++) {
+            request.append("X-Header-").append(i).append(": value\r\n");
+        }
+        request.append("\r\n");
+        try (Socket socket = new Socket("localhost", config.getPort())) {
+            sendRequest(socket, request.toString());
+            String response = readResponse(socket);
+            assertTrue("Too many headers should return 431", response.startsWith("HTTP/1.1 431"));
+            assertTrue("Connection should be closed", response.contains("Connection: close"));
+        }
+    }
+
+    @Test
+    public void testRequestBody() throws Exception {
+        // 서블릿이 읽지 않은 본문은 버려지고 같은 연결에서 다음 요청을 처리한다.
+        try (Socket socket = new Socket("localhost", config.getPort())) {
+            String request = "POST /time HTTP/1.1\r\n" +
+                           "Host: localhost\r\n" +
+                           "Transfer-Encoding: chunked\r\n\r\n" +
+                           "5\r\nhello\r\n0\r\n\r\n" +
+                           "GET / HTTP/1.1\r\n" +
+                           "Host: localhost\r\n" +
+                           "Connection: close\r\n\r\n";
+            sendRequest(socket, request);
+            String response = readResponse(socket);
+            assertEquals("Both responses should arrive on one connection",
+                    2, response.split("HTTP/1.1 200 OK", -1).length - 1);
+        }
+
+        try (Socket socket = new Socket("localhost", config.getPort())) {
+            sendRequest(socket, "POST /time HTTP/1.1\r\nHost: localhost\r\n" +
+                    "Content-Length: " + (config.getRequest().maxBodySize() + 1) + "\r\n\r\n");
+            String response = readResponse(socket);
+            assertTrue("Oversized body should return 413", response.startsWith("HTTP/1.1 413"));
+        }
+    }
+
+    @Test
+    public void testConditionalGet() throws Exception {
+        String etag;
+        try (Socket socket = new Socket("localhost", config.getPort())) {
+            String request = "GET /index.html HTTP/1.1\r\n" +
+                           "Host: localhost\r\n" +
+                           "Connection: close\r\n\r\n";
+            sendRequest(socket, request);
+            String response = readResponse(socket);
+            assertTrue("Response should contain Last-Modified", response.contains("Last-Modified: "));
+            etag = headerValue(response, "ETag");
+            assertNotNull("Response should contain ETag", etag);
+        }
+
+        try (Socket socket = new Socket("localhost", config.getPort())) {
+            String request = "GET /index.html HTTP/1.1\r\n" +
+                           "Host: localhost\r\n" +
+                           "If-None-Match: " + etag + "\r\n" +
+                           "Connection: close\r\n\r\n";
+            sendRequest(socket, request);
+            String response = readResponse(socket);
+            assertTrue("Response should contain 304 status", response.contains("HTTP/1.1 304 Not Modified"));
+            assertFalse("304 response should not have a body", response.contains("<html"));
+        }
+    }
+
+    @Test
+    public void testRangeRequest() throws Exception {
+        try (Socket socket = new Socket("localhost", config.getPort())) {
+            String request = "GET /index.html HTTP/1.1\r\n" +
+                           "Host: localhost\r\n" +
+                           "Range: bytes=0-8\r\n" +
+                           "Connection: close\r\n\r\n";
+            sendRequest(socket, request);
+            String response = readResponse(socket);
+            assertTrue("Response should contain 206 status", response.contains("HTTP/1.1 206 Partial Content"));
+            assertEquals("9", headerValue(response, "Content-Length"));
+            assertTrue("Response should contain Content-Range", headerValue(response, "Content-Range").startsWith("bytes 0-8/"));
+            assertTrue("Response should contain the first bytes only", response.endsWith("\n<!DOCTYPE\n"));
+        }
+
+        try (Socket socket = new Socket("localhost", config.getPort())) {
+            String request = "GET /index.html HTTP/1.1\r\n" +
+                           "Host: localhost\r\n" +
+                           "Range: bytes=99999999-\r\n" +
+                           "Connection: close\r\n\r\n";
+            sendRequest(socket, request);
+            String response = readResponse(socket);
+            assertTrue("Response should contain 416 status", response.contains("HTTP/1.1 416 Range Not Satisfiable"));
+        }
+    }
+
+    @Test
+    public void testCompression() throws Exception {
+        try (Socket socket = new Socket("localhost", config.getPort())) {
+            String request = "GET /hello HTTP/1.1\r\n" +
+                           "Host: localhost\r\n" +
+                           "Accept-Encoding: gzip, deflate\r\n" +
+                           "Connection: close\r\n\r\n";
+            sendRequest(socket, request);
+            String response = readResponse(socket);
+            assertTrue("Response should contain 200 status", response.contains("HTTP/1.1 200 OK"));
+            assertTrue("Status line must come before the compressed body", response.startsWith("HTTP/1.1 200 OK"));
+            assertEquals("gzip", headerValue(response, "Content-Encoding"));
+            assertEquals("Accept-Encoding", headerValue(response, "Vary"));
+        }
+    }
+
+    @Test
+    public void testNioConnector() throws Exception {
+        HttpServer nioServer = startServer("nio", root -> { });
+        try (Socket socket = new Socket("localhost", nioServer.getLocalPort())) {
+            String request = "GET /hello HTTP/1.1\r\n" +
+                           "Host: localhost\r\n\r\n" +
+                           "GET /nonexistent HTTP/1.1\r\n" +
+                           "Host: localhost\r\n" +
+                           "Connection: close\r\n\r\n";
+            sendRequest(socket, request);
+            String response = readResponse(socket);
+            assertTrue("Response should contain 200 status", response.contains("HTTP/1.1 200 OK"));
+            assertTrue("Response should contain 404 status", response.contains("HTTP/1.1 404 Not Found"));
+        }
+    }
+
+    @Test
+    public void testLoadShedding() throws Exception {
+        // 스레드 하나, 대기열 하나: 세 번째 연결은 기다리지 않고 503을 받는다.
+        HttpServer limitedServer = startServer("blocking", root -> {
+            ((ObjectNode) root.get("executor")).put("size", 1).put("queueCapacity", 1);
+        });
+        int port = limitedServer.getLocalPort();
+        try (Socket running = new Socket("localhost", port)) {
+            // 워커가 첫 연결을 잡은 뒤에 두 번째 연결이 대기열로 간다.
+            awaitUntil(() -> limitedServer.getMetrics().getActiveConnections() == 1);
+            try (Socket queued = new Socket("localhost", port);
+                 Socket rejected = new Socket("localhost", port)) {
+                String response = readResponse(rejected);
+                assertTrue(response, response.startsWith("HTTP/1.1 503 Service Unavailable"));
+                assertEquals("1", headerValue(response, "Retry-After"));
+                assertEquals(1, limitedServer.getMetrics().getRejected("queue_full"));
+
+                // 대기열에 있던 연결은 버려지지 않고 앞의 연결이 끝나면 처리된다.
+                sendRequest(running, "GET /hello HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n");
+                assertTrue(readResponse(running).startsWith("HTTP/1.1 200 OK"));
+                sendRequest(queued, "GET /hello HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n");
+                assertTrue(readResponse(queued).startsWith("HTTP/1.1 200 OK"));
+            }
+        }
+    }
+
+    @Test
+    public void testClientConnectionLimit() throws Exception {
+        HttpServer limitedServer = startServer("nio", root -> {
+            ((ObjectNode) root.get("admission")).put("maxConnectionsPerIp", 1);
+        });
+        int port = limitedServer.getLocalPort();
+        try (Socket first = new Socket("localhost", port);
+             Socket second = new Socket("localhost", port)) {
+            String response = readResponse(second);
+            assertTrue(response, response.startsWith("HTTP/1.1 429 Too Many Requests"));
+            assertNotNull(headerValue(response, "Retry-After"));
+            assertEquals(1, limitedServer.getMetrics().getRejected("client_limit"));
+        }
+        // 첫 연결이 닫혔음을 서버가 알아채면 다시 받아들인다.
+        awaitUntil(() -> limitedServer.getMetrics().getActiveConnections() == 0);
+        try (Socket socket = new Socket("localhost", port)) {
+            sendRequest(socket, "GET /hello HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n");
+            assertTrue(readResponse(socket).startsWith("HTTP/1.1 200 OK"));
+        }
+    }
+
+    @Test
+    public void testHeaderTimeout() throws Exception {
+        assertHeaderTimeout("blocking");
+        assertHeaderTimeout("nio");
+    }
+
+    // 헤더를 끝내지 않고 멈춘 클라이언트는 headerTimeoutMillis 뒤에 408을 받고 끊긴다.
+    private void assertHeaderTimeout(String connectorType) throws Exception {
+        HttpServer timeoutServer = startServer(connectorType, root -> {
+            ((ObjectNode) root.get("connector")).put("headerTimeoutMillis", 300);
+        });
+        try (Socket socket = new Socket("localhost", timeoutServer.getLocalPort())) {
+            socket.setSoTimeout(5000);
+            sendRequest(socket, "GET /hello HTTP/1.1\r\nHost: local");
+            String response = readResponse(socket);
+            assertTrue(connectorType + ": " + response, response.startsWith("HTTP/1.1 408"));
+            assertEquals(1, timeoutServer.getMetrics().getTimeouts("header"));
+        }
+    }
+
+    @Test
+    public void testMultipleAcceptors() throws Exception {
+        assertAcceptorsServe("blocking");
+        assertAcceptorsServe("nio");
+    }
+
+    // 같은 포트에 SO_REUSEPORT 리스닝 소켓이 여러 개 열려도 모든 연결이 처리된다.
+    private void assertAcceptorsServe(String connectorType) throws Exception {
+        HttpServer acceptorServer = startServer(connectorType, root -> {
+            ((ObjectNode) root.get("connector")).put("acceptors", 4).put("reusePort", true).put("eventLoops", 2);
+        });
+        for (int i = 0; i < 16; i++) {
+            try (Socket socket = new Socket("localhost", acceptorServer.getLocalPort())) {
+                socket.setSoTimeout(5000);
+                sendRequest(socket, "GET /hello HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n");
+                String response = readResponse(socket);
+                assertTrue(connectorType + ": " + response, response.startsWith("HTTP/1.1 200 OK"));
+            }
+        }
+    }
+
+    // 블로킹 커넥터도 채널로 받은 소켓이므로 캐시하지 않는 파일은 sendfile로 나간다.
+    @Test
+    public void testBlockingConnectorUsesZeroCopy() throws Exception {
+        HttpServer blockingServer = startServer("blocking", root -> {
+            ((ObjectNode) root.get("staticCache")).put("enabled", false);
+        });
+        try (Socket socket = new Socket("localhost", blockingServer.getLocalPort())) {
+            sendRequest(socket, "GET /index.html HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n");
+            String response = readResponse(socket);
+            assertTrue(response, response.startsWith("HTTP/1.1 200 OK"));
+            long length = Long.parseLong(headerValue(response, "Content-Length"));
+            // 응답을 다 받은 뒤에 워커가 계측값을 남긴다.
+            awaitUntil(() -> blockingServer.getMetrics().getZeroCopyBytes() == length);
+        }
+    }
+
+    // 임시 포트에 서버를 하나 더 띄운다. bind는 생성자에서 끝나므로 바로 연결할 수 있고, tearDown에서 멈춘다.
+    private HttpServer startServer(String connectorType, Consumer<ObjectNode> customizer) throws Exception {
+        HttpServer extra = new HttpServer(loadConfig(root -> {
+            root.put("port", 0);
+            ((ObjectNode) root.get("connector")).put("type", connectorType);
+            customizer.accept(root);
+        }));
+        extraServers.add(extra);
+        Thread thread = new Thread(extra::start, "test-server-" + connectorType);
+        thread.setDaemon(true);
+        thread.start();
+        return extra;
+    }
+
+    private void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue("Condition not met within 5 s", System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    // server-config.json을 바탕으로 하되, 접근 로그는 저장소의 logs/ 대신 임시 디렉터리에 쓴다.
+    private Config loadConfig(Consumer<ObjectNode> customizer) throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        ObjectNode root = (ObjectNode) mapper.readTree(new File("server-config.json"));
+        ((ObjectNode) root.get("accessLog")).put("path", new File(folder.getRoot(), "access.log").getPath());
+        customizer.accept(root);
+        File file = folder.newFile();
+        mapper.writeValue(file, root);
+        return Config.load(file.getPath());
+    }
+
+    private String headerValue(String response, String name) {
+        for (String line : response.split("\n")) {
+            if (line.isEmpty()) {
+                break;
+            }
+            if (line.regionMatches(true, 0, name + ":", 0, name.length() + 1)) {
+                return line.substring(name.length() + 1).trim();
+            }
+        }
+        return null;
+    }
+
     private void sendRequest(Socket socket, String request) throws IOException {
         OutputStream out = socket.getOutputStream();
         out.write(request.getBytes(StandardCharsets.UTF_8));
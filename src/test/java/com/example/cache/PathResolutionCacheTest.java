@@ -0,0 +1,75 @@
+package com.example.cache;
+
+import com.example.config.Config;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+
+public class PathResolutionCacheTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path docBase;
+    private PathResolutionCache cache;
+
+    @Before
+    public void setUp() throws Exception {
+        docBase = folder.newFolder("www").toPath();
+        Files.writeString(docBase.resolve("index.html"), "<html></html>");
+        Files.createDirectories(docBase.resolve("css"));
+        Files.writeString(folder.getRoot().toPath().resolve("secret.txt"), "secret");
+        cache = new PathResolutionCache("localhost", docBase, new Config.PathCacheConfig(true, 100, null));
+    }
+
+    @Test
+    public void testResolveTypes() {
+        ResolvedPath file = cache.resolve("index.html");
+        assertTrue(file.isFile());
+        assertEquals(13, file.size());
+        assertTrue(cache.resolve("css").isDirectory());
+        assertTrue(cache.resolve("").isDirectory());
+        assertTrue(cache.resolve("missing.html").isMissing());
+        assertTrue(cache.resolve("../secret.txt").isForbidden());
+    }
+
+    @Test
+    public void testSymlinkOutsideDocBaseIsForbidden() throws Exception {
+        Files.createSymbolicLink(docBase.resolve("link.txt"), folder.getRoot().toPath().resolve("secret.txt"));
+        Files.createSymbolicLink(docBase.resolve("linked"), folder.getRoot().toPath());
+        assertTrue(cache.resolve("link.txt").isForbidden());
+        // 중간 디렉터리가 링크여도 실제 경로로 검사한다.
+        assertTrue(cache.resolve("linked/secret.txt").isForbidden());
+    }
+
+    @Test
+    public void testCachedUntilInvalidated() throws Exception {
+        assertTrue(cache.resolve("new.html").isMissing());
+        Files.writeString(docBase.resolve("new.html"), "new");
+        assertTrue("Result is cached", cache.resolve("new.html").isMissing());
+        assertEquals(1, cache.getHits());
+
+        cache.invalidate(docBase.resolve("new.html"));
+        assertTrue(cache.resolve("new.html").isFile());
+    }
+
+    @Test
+    public void testFileWatcherInvalidates() throws Exception {
+        try (FileWatcher watcher = new FileWatcher()) {
+            watcher.watch(docBase, cache::invalidate, cache::invalidateAll);
+            assertTrue(cache.resolve("css/site.css").isMissing());
+            Files.writeString(docBase.resolve("css/site.css"), "body {}");
+
+            long deadline = System.currentTimeMillis() + 5000;
+            while (!cache.resolve("css/site.css").isFile() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertTrue(cache.resolve("css/site.css").isFile());
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.cache;
+
+import com.example.config.Config;
+import com.example.http.ContentEncoding;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+
+public class StaticResourceCacheTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path index;
+    private Path gzip;
+    private StaticResourceCache cache;
+
+    @Before
+    public void setUp() throws Exception {
+        Path docBase = folder.newFolder("www").toPath();
+        index = docBase.resolve("index.html");
+        gzip = docBase.resolve("index.html.gz");
+        Files.writeString(index, "<html></html>");
+        Files.writeString(gzip, "old-gzip");
+        // 매 요청마다 다시 확인하도록 검증 주기를 0으로 둔다.
+        cache = new StaticResourceCache("localhost", new Config.StaticCacheConfig(true, 0, 0, 0L),
+                new Config.CompressionConfig(true, 0, null));
+    }
+
+    @Test
+    public void testRewrittenPrecompressedSiblingIsReloaded() throws Exception {
+        CachedResource resource = cache.load(index, index, "text/html");
+        assertEquals("old-gzip", variant(resource));
+        String oldEtag = resource.getEtag(ContentEncoding.GZIP);
+        assertSame(resource, cache.get(index));
+
+        Files.writeString(gzip, "new-gzip-bytes");
+        assertNull("Changed sibling invalidates the entry", cache.get(index));
+        CachedResource reloaded = cache.load(index, index, "text/html");
+        assertEquals("new-gzip-bytes", variant(reloaded));
+        assertNotEquals(oldEtag, reloaded.getEtag(ContentEncoding.GZIP));
+        assertEquals(resource.getEtag(), reloaded.getEtag());
+    }
+
+    @Test
+    public void testAddedPrecompressedSiblingIsDetected() throws Exception {
+        CachedResource resource = cache.load(index, index, "text/html");
+        assertFalse(resource.getEncodings().contains(ContentEncoding.BROTLI));
+
+        Files.writeString(index.resolveSibling("index.html.br"), "brotli");
+        assertNull(cache.get(index));
+        assertTrue(cache.load(index, index, "text/html").getEncodings().contains(ContentEncoding.BROTLI));
+    }
+
+    @Test
+    public void testInvalidatingSiblingEvictsOriginal() throws Exception {
+        cache.load(index, index, "text/html");
+        assertEquals(1, cache.size());
+        cache.invalidate(gzip);
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getTotalBytes());
+    }
+
+    private String variant(CachedResource resource) {
+        return new String(resource.getVariant(ContentEncoding.GZIP), StandardCharsets.UTF_8);
+    }
+}
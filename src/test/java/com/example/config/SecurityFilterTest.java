@@ -0,0 +1,65 @@
+package com.example.config;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
+
+public class SecurityFilterTest {
+
+    @Test
+    public void testExtensionsAndPaths() {
+        SecurityFilter filter = new SecurityFilter(List.of(), List.of(".exe", ".sh"), List.of("/WEB-INF", "/META-INF/"));
+        assertTrue(filter.isForbidden("/test.exe"));
+        assertTrue(filter.isForbidden("/bin/run.sh"));
+        assertFalse(filter.isForbidden("/test.exe.txt"));
+        assertTrue(filter.isForbidden("/WEB-INF"));
+        assertTrue(filter.isForbidden("/WEB-INF/web.xml"));
+        assertTrue(filter.isForbidden("/META-INF"));
+        assertFalse("Only whole segments are matched", filter.isForbidden("/WEB-INFO"));
+        assertFalse(filter.isForbidden("/index.html"));
+    }
+
+    @Test
+    public void testLiteralPatterns() {
+        SecurityFilter filter = new SecurityFilter(
+                List.of(".*\\.bak$", "^/admin.*", ".*\\.\\..*", "/secret", "\\.\\."), List.of(), List.of());
+        assertTrue(filter.isForbidden("/index.html.bak"));
+        assertTrue(filter.isForbidden("/admin/users"));
+        assertTrue(filter.isForbidden("/a/../b"));
+        assertTrue(filter.isForbidden("/secret"));
+        assertFalse("Patterns must match the whole path", filter.isForbidden("/secret/file"));
+        assertFalse(filter.isForbidden("/a/.b"));
+        assertFalse(filter.isForbidden("/backup"));
+    }
+
+    @Test
+    public void testContainsAutomatonOverlaps() {
+        SecurityFilter filter = new SecurityFilter(List.of(".*abcd.*", ".*bce.*", ".*c.x.*"), List.of(), List.of());
+        assertTrue(filter.isForbidden("/xxabce"));
+        assertTrue(filter.isForbidden("/abcabcd"));
+        assertFalse(filter.isForbidden("/abcbd"));
+        // ".*c.x.*" 는 임의 문자를 포함하므로 정규식으로 검사된다.
+        assertTrue(filter.isForbidden("/acyx"));
+    }
+
+    // 컴파일된 검사기는 Pattern.matches / endsWith / equals 로 하나씩 검사한 결과와 같아야 한다.
+    @Test
+    public void testMatchesRegexSemantics() {
+        List<String> patterns = List.of(".*\\.exe$", "~", "\\.\\.", "/tmp/[0-9]+", "(?i).*\\.PHP", "/static/.*");
+        List<String> extensions = List.of(".bat", ".cmd");
+        List<String> paths = List.of("/WEB-INF");
+        SecurityFilter filter = new SecurityFilter(patterns, extensions, paths);
+        List<Pattern> compiled = patterns.stream().map(Pattern::compile).toList();
+
+        for (String path : List.of("/a.exe", "/~", "~", "..", "/tmp/123", "/tmp/12a", "/x.php", "/x.Php",
+                "/static/", "/static", "/run.bat", "/run.cmd.txt", "/WEB-INF", "/WEB-INF/lib", "/index.html", "/")) {
+            boolean expected = compiled.stream().anyMatch(pattern -> pattern.matcher(path).matches())
+                    || extensions.stream().anyMatch(path::endsWith)
+                    || path.equals("/WEB-INF") || path.startsWith("/WEB-INF/");
+            assertEquals(path, expected, filter.isForbidden(path));
+        }
+    }
+}
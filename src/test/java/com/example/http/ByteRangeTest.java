@@ -0,0 +1,51 @@
+package com.example.http;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ByteRangeTest {
+
+    @Test
+    public void testSingleRanges() {
+        assertEquals(List.of(new ByteRange(0, 99)), ByteRange.parse("bytes=0-99", 1000));
+        assertEquals(List.of(new ByteRange(500, 999)), ByteRange.parse("bytes=500-", 1000));
+        assertEquals(List.of(new ByteRange(900, 999)), ByteRange.parse("bytes=-100", 1000));
+        // 끝 위치가 파일 길이를 넘으면 잘라낸다.
+        assertEquals(List.of(new ByteRange(990, 999)), ByteRange.parse("bytes=990-5000", 1000));
+    }
+
+    @Test
+    public void testMultipleRanges() {
+        assertEquals(List.of(new ByteRange(0, 0), new ByteRange(10, 19)),
+                ByteRange.parse("bytes=0-0, 10-19", 1000));
+    }
+
+    @Test
+    public void testOverlappingRangesAreMerged() {
+        assertEquals(List.of(new ByteRange(0, 999)), ByteRange.parse("bytes=0-,0-,0-,0-", 1000));
+        assertEquals(List.of(new ByteRange(0, 19)), ByteRange.parse("bytes=5-14,0-9,15-19", 1000));
+        assertEquals(List.of(new ByteRange(0, 9), new ByteRange(900, 999)),
+                ByteRange.parse("bytes=-100,0-9,950-", 1000));
+    }
+
+    @Test
+    public void testUnsatisfiableRanges() {
+        assertTrue(ByteRange.parse("bytes=1000-", 1000).isEmpty());
+        assertTrue(ByteRange.parse("bytes=-0", 1000).isEmpty());
+    }
+
+    @Test
+    public void testInvalidRangesAreIgnored() {
+        assertNull(ByteRange.parse("items=0-10", 1000));
+        assertNull(ByteRange.parse("bytes=10-5", 1000));
+        assertNull(ByteRange.parse("bytes=abc", 1000));
+        assertNull(ByteRange.parse("bytes=+5-10", 1000));
+        assertNull(ByteRange.parse("bytes=5-+10", 1000));
+        assertNull(ByteRange.parse("bytes=-+100", 1000));
+        assertNull(ByteRange.parse("bytes=1-2,3-4,5-6,7-8,9-10,11-12,13-14,15-16,17-18,19-20,"
+                + "21-22,23-24,25-26,27-28,29-30,31-32,33-34", 1000));
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.http;
+
+import com.example.config.Config;
+import com.example.exception.WebServerException;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class HttpRequestParserTest {
+    private static final Config.RequestConfig LIMITS = new Config.RequestConfig(64, 256, 4, 1024, null);
+
+    @Test
+    public void testPartialReads() {
+        HttpRequestParser parser = new HttpRequestParser(LIMITS);
+        byte[] bytes = "GET /hello?name=kim HTTP/1.1\r\nHost: localhost:8080\r\nX-Test:  a b \r\n\r\nNEXT"
+                .getBytes(StandardCharsets.ISO_8859_1);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+
+        // 한 바이트씩 도착해도 헤더 끝에서 정확히 멈춘다.
+        int end = bytes.length - 4;
+        for (int limit = 0; limit < end; limit++) {
+            buffer.limit(limit);
+            assertFalse(parser.parse(buffer));
+        }
+        buffer.limit(bytes.length);
+        assertTrue(parser.parse(buffer));
+
+        SimpleHttpRequest request = parser.take(buffer);
+        assertEquals("GET", request.getMethod());
+        assertEquals("/hello", request.getPath());
+        assertEquals("name=kim", request.getQueryString());
+        assertEquals("kim", request.getParameters().get("name"));
+        assertEquals("HTTP/1.1", request.getProtocol());
+        assertEquals("localhost", request.getHost());
+        assertEquals(8080, request.getPort());
+        assertEquals("a b", request.getHeader("x-test"));
+        assertEquals(2, request.getHeaders().size());
+        assertEquals("Leftover bytes belong to the next request", 4, buffer.remaining());
+    }
+
+    @Test
+    public void testReaderHandlesPipelinedRequests() throws Exception {
+        String requests = "\r\nGET /a HTTP/1.1\nHost: a\n\nHEAD /b HTTP/1.0\r\nHost: b\r\n\r\n";
+        RequestReader reader = new RequestReader(
+                new ByteArrayInputStream(requests.getBytes(StandardCharsets.ISO_8859_1)), LIMITS);
+        assertEquals("/a", reader.readRequest().getPath());
+        SimpleHttpRequest second = reader.readRequest();
+        assertEquals("HEAD", second.getMethod());
+        assertEquals("b", second.getHost());
+        assertNull("Clean end of stream", reader.readRequest());
+    }
+
+    @Test
+    public void testLimits() {
+        assertStatus(414, "GET /" + "a".repeat(100) + " HTTP/1.1\r\n\r\n");
+        assertStatus(431, "GET / HTTP/1.1\r\nX-Long: " + "a".repeat(300) + "\r\n\r\n");
+        assertStatus(431, "GET / HTTP/1.1\r\nA: 1\r\nB: 2\r\nC: 3\r\nD: 4\r\nE: 5\r\n\r\n");
+    }
+
+    @Test
+    public void testMalformedRequests() {
+        assertStatus(400, "GET /\r\n\r\n");
+        assertStatus(400, "GET  HTTP/1.1\r\n\r\n");
+        assertStatus(400, "GET / FTP/1.0\r\n\r\n");
+        assertStatus(400, "GET /a b HTTP/1.1\r\n\r\n");
+        assertStatus(400, "GET  / HTTP/1.1\r\n\r\n");
+        assertStatus(400, "GET / HTTP/1.1 \r\n\r\n");
+        assertStatus(400, "GET / HTTP/1.1\r\nNoColon\r\n\r\n");
+        assertStatus(400, "GET / HTTP/1.1\r\nHost : localhost\r\n\r\n");
+        assertStatus(400, "GET / HTTP/1.1\r\nHost: localhost\r\n folded\r\n\r\n");
+    }
+
+    @Test
+    public void testUnsupportedVersions() {
+        assertStatus(505, "GET / HTTP/2.0\r\n\r\n");
+        assertStatus(505, "GET / HTTP/9\r\n\r\n");
+        assertStatus(505, "GET / HTTP/1.1x\r\n\r\n");
+        assertStatus(505, "GET / HTTP/1.2\r\n\r\n");
+    }
+
+    private void assertStatus(int expected, String request) {
+        HttpRequestParser parser = new HttpRequestParser(LIMITS);
+        ByteBuffer buffer = ByteBuffer.wrap(request.getBytes(StandardCharsets.ISO_8859_1));
+        try {
+            parser.parse(buffer);
+            fail("Expected " + expected + " for " + request);
+        } catch (WebServerException e) {
+            assertEquals(expected, e.getStatusCode());
+        }
+        // 같은 파서는 계속 같은 에러를 낸다.
+        assertThrows(WebServerException.class, () -> parser.parse(buffer));
+    }
+}
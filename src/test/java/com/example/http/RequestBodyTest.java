@@ -0,0 +1,143 @@
+package com.example.http;
+
+import com.example.config.Config;
+import com.example.exception.WebServerException;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class RequestBodyTest {
+    private static final Config.RequestConfig LIMITS = new Config.RequestConfig(0, 0, 0, 16, null);
+
+    @Test
+    public void testContentLengthBody() throws Exception {
+        RequestReader reader = reader("POST /a HTTP/1.1\r\nContent-Length: 5\r\n\r\nhelloGET /b HTTP/1.1\r\n\r\n");
+        SimpleHttpRequest request = reader.readRequest();
+        assertEquals("hello", read(request.getInputStream()));
+        // 본문 뒤의 바이트는 다음 요청이다.
+        assertEquals("/b", reader.readRequest().getPath());
+    }
+
+    @Test
+    public void testChunkedBody() throws Exception {
+        RequestReader reader = reader("POST /a HTTP/1.1\r\nTransfer-Encoding: chunked\r\n\r\n"
+                + "5;ext=1\r\nhello\r\n6\r\n world\r\n0\r\nX-Trailer: 1\r\n\r\nGET /b HTTP/1.1\r\n\r\n");
+        SimpleHttpRequest request = reader.readRequest();
+        assertEquals("hello world", read(request.getInputStream()));
+        assertEquals("/b", reader.readRequest().getPath());
+    }
+
+    @Test
+    public void testUnreadBodyIsDrained() throws Exception {
+        RequestReader reader = reader("POST /a HTTP/1.1\r\nTransfer-Encoding: chunked\r\n\r\n"
+                + "3\r\nabc\r\n0\r\n\r\nPOST /b HTTP/1.1\r\nContent-Length: 3\r\n\r\nxyz");
+        assertTrue(reader.readRequest().getInputStream().drain(1024));
+        RequestBody second = reader.readRequest().getInputStream();
+        assertFalse("Drain limit smaller than the body", second.drain(2));
+    }
+
+    @Test
+    public void testBodyLimits() throws Exception {
+        try {
+            reader("POST /a HTTP/1.1\r\nContent-Length: 17\r\n\r\n").readRequest();
+            fail("Content-Length over the limit should be rejected");
+        } catch (WebServerException e) {
+            assertEquals(413, e.getStatusCode());
+        }
+
+        RequestReader reader = reader("POST /a HTTP/1.1\r\nTransfer-Encoding: chunked\r\n\r\n"
+                + "10\r\n0123456789abcdef\r\n1\r\nx\r\n0\r\n\r\n");
+        RequestBody body = reader.readRequest().getInputStream();
+        assertThrows(RequestBody.PayloadTooLargeException.class, () -> read(body));
+        assertFalse(body.drain(1024));
+    }
+
+    @Test
+    public void testExpectContinue() throws Exception {
+        RequestReader reader = reader("PUT /a HTTP/1.1\r\nExpect: 100-continue\r\nContent-Length: 2\r\n\r\nok");
+        SimpleHttpRequest request = reader.readRequest();
+        assertTrue(request.isExpectContinue());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        request.getInputStream().expectContinue(out);
+        // 본문을 읽지 않으면 클라이언트가 본문을 보내지 않을 수 있으므로 버리지 않는다.
+        assertTrue(request.getInputStream().isAwaitingContinue());
+        assertEquals(0, out.size());
+
+        assertEquals("ok", read(request.getInputStream()));
+        assertEquals("HTTP/1.1 100 Continue\r\n\r\n", out.toString(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    public void testAmbiguousContentLengthIsRejected() {
+        for (String headers : new String[]{
+                "Content-Length: 3\r\nContent-Length: 5\r\n",
+                "Content-Length: 3\r\nContent-Length: 3\r\n",
+                "Content-Length: 3, 3\r\n",
+                "Content-Length: +3\r\n"}) {
+            try {
+                reader("POST /a HTTP/1.1\r\n" + headers + "\r\nabc").readRequest();
+                fail("Should reject " + headers);
+            } catch (WebServerException e) {
+                assertEquals(400, e.getStatusCode());
+            } catch (IOException e) {
+                fail(e.getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void testTransferEncodingWithContentLengthClosesConnection() throws Exception {
+        RequestReader reader = reader("POST /a HTTP/1.1\r\nContent-Length: 3\r\nTransfer-Encoding: chunked\r\n\r\n"
+                + "5\r\nhello\r\n0\r\n\r\n");
+        SimpleHttpRequest request = reader.readRequest();
+        assertEquals("hello", read(request.getInputStream()));
+        assertFalse(request.isKeepAlive());
+    }
+
+    @Test
+    public void testTooManyChunkTrailers() throws Exception {
+        StringBuilder trailers = new StringBuilder();
+        for (int i = 0; i <= 100; i++) {
+            trailers.append("X-Trailer-").append(i).append(": 1\r\n");
+        }
+        RequestReader reader = reader("POST /a HTTP/1.1\r\nTransfer-Encoding: chunked\r\n\r\n"
+                + "1\r\nx\r\n0\r\n" + trailers + "\r\n");
+        RequestBody body = reader.readRequest().getInputStream();
+        IOException e = assertThrows(IOException.class, () -> read(body));
+        assertTrue(e.getMessage(), e.getMessage().contains("trailer"));
+    }
+
+    @Test
+    public void testMalformedChunkFramingIsRejected() throws Exception {
+        for (String chunks : new String[]{
+                "+5\r\nhello\r\n0\r\n\r\n",
+                " 5\r\nhello\r\n0\r\n\r\n",
+                "5 \r\nhello\r\n0\r\n\r\n",
+                "0x5\r\nhello\r\n0\r\n\r\n",
+                "\r\nhello\r\n0\r\n\r\n",
+                "00000000000000005\r\nhello\r\n0\r\n\r\n",
+                "5\nhello\r\n0\r\n\r\n",
+                "5\r\nhello\n0\r\n\r\n",
+                "5\r\nhello\r\n0\r\nX-Trailer: 1\n\r\n",
+                "5\r\nhello\r\n0\r\n\n"}) {
+            RequestBody body = reader("POST /a HTTP/1.1\r\nTransfer-Encoding: chunked\r\n\r\n" + chunks)
+                    .readRequest().getInputStream();
+            assertThrows(chunks, RequestBody.MalformedChunkException.class, () -> read(body));
+            assertFalse(body.drain(1024));
+        }
+    }
+
+    private RequestReader reader(String data) {
+        return new RequestReader(new ByteArrayInputStream(data.getBytes(StandardCharsets.ISO_8859_1)), LIMITS);
+    }
+
+    private String read(RequestBody body) throws IOException {
+        return new String(body.readAllBytes(), StandardCharsets.ISO_8859_1);
+    }
+}
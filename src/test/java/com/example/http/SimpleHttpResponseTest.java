@@ -0,0 +1,126 @@
+package com.example.http;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class SimpleHttpResponseTest {
+
+    @Test
+    public void testBufferedBodyUsesContentLength() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SimpleHttpResponse response = new SimpleHttpResponse(out, null, null);
+        response.getWriter().write("hello");
+        assertFalse(response.isCommitted());
+        response.finish();
+
+        String raw = out.toString(StandardCharsets.ISO_8859_1);
+        assertTrue(raw.contains("Content-Length: 5\r\n"));
+        assertFalse(raw.contains("Transfer-Encoding"));
+        assertTrue(raw.endsWith("\r\n\r\nhello"));
+    }
+
+    @Test
+    public void testOverflowSwitchesToChunked() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SimpleHttpResponse response = new SimpleHttpResponse(out, null, null);
+        byte[] body = "x".repeat(response.getBufferSize() + 100).getBytes(StandardCharsets.US_ASCII);
+        OutputStream stream = response.getOutputStream();
+        stream.write(body, 0, 100);
+        stream.write(body, 100, body.length - 100);
+        assertTrue("Buffer overflow commits the response", response.isCommitted());
+        response.finish();
+
+        String raw = out.toString(StandardCharsets.ISO_8859_1);
+        assertTrue(raw.contains("Transfer-Encoding: chunked\r\n"));
+        assertFalse(raw.contains("Content-Length"));
+        String chunks = raw.substring(raw.indexOf("\r\n\r\n") + 4);
+        assertEquals(new String(body, StandardCharsets.US_ASCII), decodeChunked(chunks));
+    }
+
+    @Test
+    public void testFlushCommits() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SimpleHttpResponse response = new SimpleHttpResponse(out, null, null);
+        response.getWriter().write("first");
+        response.flush();
+        assertTrue(response.isCommitted());
+        assertThrows(IllegalStateException.class, response::reset);
+        response.getWriter().write("second");
+        response.finish();
+
+        String raw = out.toString(StandardCharsets.ISO_8859_1);
+        assertEquals("firstsecond", decodeChunked(raw.substring(raw.indexOf("\r\n\r\n") + 4)));
+    }
+
+    @Test
+    public void testResetBufferKeepsHeaders() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SimpleHttpResponse response = new SimpleHttpResponse(out, null, null);
+        response.setHeader("X-Test", "1");
+        response.getWriter().write("discarded");
+        response.resetBuffer();
+        response.getWriter().write("kept");
+        response.finish();
+
+        String raw = out.toString(StandardCharsets.ISO_8859_1);
+        assertTrue(raw.contains("X-Test: 1\r\n"));
+        assertTrue(raw.endsWith("\r\n\r\nkept"));
+    }
+
+    @Test
+    public void testHttp10StreamsUntilClose() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SimpleHttpResponse response = new SimpleHttpResponse(out, null, null);
+        response.setKeepAlive(true);
+        response.setChunkedSupported(false);
+        response.getOutputStream().write(new byte[response.getBufferSize() + 1]);
+        response.finish();
+
+        String raw = out.toString(StandardCharsets.ISO_8859_1);
+        assertFalse(raw.contains("Transfer-Encoding"));
+        assertTrue(raw.contains("Connection: close\r\n"));
+        assertFalse(response.isKeepAlive());
+    }
+
+    @Test
+    public void testHeaderEncoding() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SimpleHttpResponse response = new SimpleHttpResponse(out, null, null);
+        response.setStatus(404, "Not Found");
+        response.setContentType("text/plain");
+        response.setHeader("X-Name", "caf\u00e9");
+        response.finish();
+
+        String raw = out.toString(StandardCharsets.UTF_8);
+        assertTrue(raw.startsWith("HTTP/1.1 404 Not Found\r\nContent-Type: text/plain\r\nContent-Length: 0\r\n"));
+        assertTrue(raw.contains("X-Name: caf\u00e9\r\n"));
+        assertTrue(raw.matches("(?s).*\r\nDate: \\w{3}, \\d{2} \\w{3} \\d{4} \\d{2}:\\d{2}:\\d{2} GMT\r\n.*"));
+
+        // 표준 문구가 아닌 상태 줄도 그대로 보낸다.
+        out.reset();
+        response = new SimpleHttpResponse(out, null, null);
+        response.setStatus(299, "Custom");
+        response.finish();
+        assertTrue(out.toString(StandardCharsets.US_ASCII).startsWith("HTTP/1.1 299 Custom\r\n"));
+    }
+
+    private String decodeChunked(String chunks) {
+        StringBuilder body = new StringBuilder();
+        int position = 0;
+        while (true) {
+            int lineEnd = chunks.indexOf("\r\n", position);
+            int size = Integer.parseInt(chunks.substring(position, lineEnd), 16);
+            if (size == 0) {
+                assertEquals("\r\n", chunks.substring(lineEnd + 2));
+                return body.toString();
+            }
+            body.append(chunks, lineEnd + 2, lineEnd + 2 + size);
+            position = lineEnd + 2 + size + 2;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.log;
+
+import com.example.config.Config;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class AccessLogTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testRecordFormat() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("logs/access.log");
+        try (AccessLog accessLog = new AccessLog(new Config.AccessLogConfig(true, file.toString(), 16, null))) {
+            accessLog.log("GET", "/index.html", "HTTP/1.1", "localhost", 200, 1234, 512_300);
+        }
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(1, lines.size());
+        assertTrue(lines.get(0), lines.get(0).endsWith(" localhost \"GET /index.html HTTP/1.1\" 200 1234 0.512ms"));
+    }
+
+    @Test
+    public void testConcurrentWriters() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("access.log");
+        int threads = 4;
+        int perThread = 5000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long dropped;
+        try (AccessLog accessLog = new AccessLog(new Config.AccessLogConfig(true, file.toString(), 1 << 16, null))) {
+            CountDownLatch done = new CountDownLatch(threads);
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                executor.execute(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        accessLog.log("GET", "/t" + thread + "/" + i, "HTTP/1.1", "localhost", 200, i, 1000);
+                    }
+                    done.countDown();
+                });
+            }
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+            dropped = accessLog.getDropped();
+        } finally {
+            executor.shutdown();
+        }
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(threads * perThread - dropped, lines.size());
+        assertTrue(lines.stream().allMatch(line -> line.contains("\" 200 ")));
+    }
+
+    @Test
+    public void testSamplingKeepsServerErrors() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("sampled.log");
+        try (AccessLog accessLog = new AccessLog(new Config.AccessLogConfig(true, file.toString(), 16, 0.0))) {
+            accessLog.log("GET", "/ok", "HTTP/1.1", "localhost", 200, 10, 1000);
+            accessLog.log("GET", "/fail", "HTTP/1.1", "localhost", 500, 10, 1000);
+        }
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(1, lines.size());
+        assertTrue(lines.get(0).contains("/fail"));
+    }
+}
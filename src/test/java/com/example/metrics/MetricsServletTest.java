@@ -0,0 +1,70 @@
+package com.example.metrics;
+
+import com.example.config.Config;
+import com.example.exception.WebServerException;
+import com.example.http.RequestReader;
+import com.example.http.SimpleHttpRequest;
+import com.example.http.SimpleHttpResponse;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class MetricsServletTest {
+    private final ServerMetrics metrics = new ServerMetrics();
+
+    @Before
+    public void setUp() {
+        ServerMetrics.setCurrent(metrics);
+    }
+
+    @After
+    public void tearDown() {
+        ServerMetrics.clearCurrent(metrics);
+    }
+
+    @Test
+    public void testRemoteClientsAreRejectedByDefault() throws Exception {
+        MetricsServlet servlet = servlet(Map.of());
+        try {
+            servlet.service(request("203.0.113.7"), new SimpleHttpResponse(new ByteArrayOutputStream(), null, null));
+            fail("Remote client should not see metrics");
+        } catch (WebServerException e) {
+            assertEquals(403, e.getStatusCode());
+        }
+
+        SimpleHttpResponse response = new SimpleHttpResponse(new ByteArrayOutputStream(), null, null);
+        servlet.service(request("127.0.0.1"), response);
+        assertEquals(200, response.getStatus());
+    }
+
+    @Test
+    public void testAllowRemote() throws Exception {
+        SimpleHttpResponse response = new SimpleHttpResponse(new ByteArrayOutputStream(), null, null);
+        servlet(Map.of("allowRemote", "true")).service(request("203.0.113.7"), response);
+        assertEquals(200, response.getStatus());
+    }
+
+    private MetricsServlet servlet(Map<String, String> initParameters) {
+        MetricsServlet servlet = new MetricsServlet();
+        servlet.init(new Config.ServletConfig("metrics", MetricsServlet.class.getName(), List.of("/metrics"),
+                initParameters));
+        return servlet;
+    }
+
+    private SimpleHttpRequest request(String client) throws Exception {
+        byte[] bytes = "GET /metrics HTTP/1.1\r\nHost: localhost\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+        SimpleHttpRequest request = new RequestReader(new ByteArrayInputStream(bytes),
+                new Config.RequestConfig(0, 0, 0, 0, null)).readRequest();
+        request.setRemoteAddress(InetAddress.getByName(client));
+        return request;
+    }
+}
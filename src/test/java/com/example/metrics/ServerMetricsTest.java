@@ -0,0 +1,73 @@
+package com.example.metrics;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ServerMetricsTest {
+    @Test
+    public void testHistogramBuckets() {
+        for (long micros : new long[]{0, 1, 7, 8, 9, 15, 16, 100, 1000, 123_456, 1L << 30}) {
+            int index = LatencyHistogram.index(micros);
+            assertTrue("value below upper bound: " + micros, micros < LatencyHistogram.upperBound(index));
+            if (index > 0) {
+                assertTrue("value at or above previous bound: " + micros,
+                        micros >= LatencyHistogram.upperBound(index - 1));
+            }
+        }
+        // 상대 오차는 1/8 이내
+        long bound = LatencyHistogram.upperBound(LatencyHistogram.index(123_456));
+        assertTrue(bound - 123_456 <= 123_456 / 8);
+    }
+
+    @Test
+    public void testHistogramCounts() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(50_000);      // 50us
+        histogram.record(200_000);     // 200us
+        histogram.record(3_000_000);   // 3ms
+        assertEquals(3, histogram.getCount());
+        assertEquals(3250, histogram.getSumMicros());
+        assertEquals(1, histogram.countAtMostPowerOfTwo(7));   // <= 128us
+        assertEquals(2, histogram.countAtMostPowerOfTwo(8));   // <= 256us
+        assertEquals(3, histogram.countAtMostPowerOfTwo(12));  // <= 4096us
+        assertTrue(histogram.percentile(0.5) >= 200 && histogram.percentile(0.5) <= 256);
+    }
+
+    @Test
+    public void testHistogramBucketEdgesAreInclusive() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(256_000);     // 정확히 256us
+        histogram.record(256_001);     // 256us를 조금 넘는다
+        histogram.record(0);
+        assertEquals(1, histogram.countAtMostPowerOfTwo(0));
+        assertEquals(1, histogram.countAtMostPowerOfTwo(7));
+        assertEquals(2, histogram.countAtMostPowerOfTwo(8));
+        assertEquals(3, histogram.countAtMostPowerOfTwo(9));
+        assertEquals(256, histogram.percentile(0.5));
+    }
+
+    @Test
+    public void testPrometheusOutput() {
+        ServerMetrics metrics = new ServerMetrics();
+        metrics.connectionOpened();
+        metrics.recordRequest("localhost", 200, 1234, 1_000_000);
+        metrics.recordRequest("localhost", 404, 100, 500_000);
+        metrics.recordRequest(null, 400, 0, 10_000);
+        metrics.recordServlet("/time", 500, 2_000_000, true);
+
+        StringBuilder out = new StringBuilder();
+        metrics.writePrometheus(out);
+        String text = out.toString();
+        assertTrue(text, text.contains("http_connections_active 1\n"));
+        assertTrue(text, text.contains("http_requests_total{host=\"localhost\",status=\"200\"} 1\n"));
+        assertTrue(text, text.contains("http_requests_total{host=\"localhost\",status=\"404\"} 1\n"));
+        assertTrue(text, text.contains("http_requests_total{host=\"-\",status=\"400\"} 1\n"));
+        assertTrue(text, text.contains("http_response_bytes_total{host=\"localhost\"} 1334\n"));
+        assertTrue(text, text.contains("http_request_duration_seconds_bucket{host=\"localhost\",le=\"0.000256\"} 0\n"));
+        assertTrue(text, text.contains("http_request_duration_seconds_bucket{host=\"localhost\",le=\"0.001024\"} 2\n"));
+        assertTrue(text, text.contains("http_request_duration_seconds_bucket{host=\"localhost\",le=\"+Inf\"} 2\n"));
+        assertTrue(text, text.contains("http_request_duration_seconds_count{host=\"localhost\"} 2\n"));
+        assertTrue(text, text.contains("servlet_errors_total{route=\"/time\"} 1\n"));
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.servlet;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class ServletMappingTest {
+    private final SimpleServlet exact = (request, response) -> { };
+    private final SimpleServlet user = (request, response) -> { };
+    private final SimpleServlet userPosts = (request, response) -> { };
+    private final SimpleServlet me = (request, response) -> { };
+    private final SimpleServlet api = (request, response) -> { };
+    private final SimpleServlet apiAdmin = (request, response) -> { };
+    private final SimpleServlet extension = (request, response) -> { };
+    private final SimpleServlet fallback = (request, response) -> { };
+    private ServletMapping mapping;
+
+    @Before
+    public void setUp() {
+        mapping = new ServletMapping();
+        mapping.addMapping("time", exact);
+        mapping.addMapping("/users/{id}", user);
+        mapping.addMapping("/users/{id}/posts/{postId}", userPosts);
+        mapping.addMapping("/users/me", me);
+        mapping.addMapping("/api/*", api);
+        mapping.addMapping("/api/admin/*", apiAdmin);
+        mapping.addMapping("*.do", extension);
+    }
+
+    @Test
+    public void testExactAndPathParameters() {
+        assertSame(exact, mapping.getServlet("/time"));
+        assertNull(mapping.getServlet("/time/extra"));
+
+        ServletMatch match = mapping.match("/users/42");
+        assertSame(user, match.servlet());
+        assertEquals(Map.of("id", "42"), match.pathParameters());
+
+        // 같은 자리에서는 리터럴 세그먼트가 경로 변수보다 우선한다.
+        assertSame(me, mapping.getServlet("/users/me"));
+
+        match = mapping.match("/users/7/posts/99");
+        assertSame(userPosts, match.servlet());
+        assertEquals(Map.of("id", "7", "postId", "99"), match.pathParameters());
+
+        // 경로 변수는 빈 세그먼트와 맞지 않는다.
+        assertNull(mapping.getServlet("/users/"));
+    }
+
+    @Test
+    public void testPrefixAndExtensionPrecedence() {
+        assertSame(api, mapping.getServlet("/api"));
+        assertSame(api, mapping.getServlet("/api/orders/1"));
+        assertSame("Longest prefix wins", apiAdmin, mapping.getServlet("/api/admin/users"));
+        assertSame("Prefix beats extension", api, mapping.getServlet("/api/list.do"));
+        assertSame(extension, mapping.getServlet("/shop/cart.do"));
+        assertNull(mapping.getServlet("/shop.do/cart"));
+        assertNull(mapping.getServlet("/apiary"));
+        assertNull(mapping.getServlet("/index.html"));
+
+        mapping.addMapping("/", fallback);
+        assertSame(fallback, mapping.getServlet("/index.html"));
+    }
+
+    @Test
+    public void testStaticMatchesAreShared() {
+        assertSame("Lookups without path parameters allocate nothing",
+                mapping.match("/time"), mapping.match("/time"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPathParametersNotAllowedInPrefix() {
+        mapping.addMapping("/files/{name}/*", exact);
+    }
+}